@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+/**
+ * Represents an operation that is notified of a single position changing its value between two consecutive tuples of
+ * an enumeration and tells whether the iteration should continue.
+ */
+@FunctionalInterface
+public interface ChangeVisitor {
+    /**
+     * Performs this operation on given change.
+     *
+     * @param position position of the tuple which has changed
+     * @param oldValue value at the position before the change
+     * @param newValue value at the position after the change
+     * @return {@code true} to continue the iteration, {@code false} to stop it
+     */
+    boolean onChange(int position, int oldValue, int newValue);
+}
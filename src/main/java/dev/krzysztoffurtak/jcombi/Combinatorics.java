@@ -21,13 +21,28 @@
  */
 package dev.krzysztoffurtak.jcombi;
 
+import dev.krzysztoffurtak.jcombi.combinations.CombinationMasks;
 import dev.krzysztoffurtak.jcombi.combinations.CombinationsBuilder;
+import dev.krzysztoffurtak.jcombi.combinations.CombinationsWithBoundedRepetition;
 import dev.krzysztoffurtak.jcombi.combinations.CombinationsWithoutRepetition;
+import dev.krzysztoffurtak.jcombi.combinations.Pairs;
+import dev.krzysztoffurtak.jcombi.combinations.PowerSet;
+import dev.krzysztoffurtak.jcombi.combinations.SubsetSum;
+import dev.krzysztoffurtak.jcombi.partitions.Compositions;
+import dev.krzysztoffurtak.jcombi.partitions.IntegerPartitions;
+import dev.krzysztoffurtak.jcombi.partitions.SetPartitions;
+import dev.krzysztoffurtak.jcombi.partitions.SetPartitionsBuilder;
 import dev.krzysztoffurtak.jcombi.permutations.PermutationsBuilder;
+import dev.krzysztoffurtak.jcombi.permutations.PermutationsWithRepetition;
 import dev.krzysztoffurtak.jcombi.permutations.PermutationsWithoutRepetition;
+import dev.krzysztoffurtak.jcombi.variations.CartesianProduct;
 import dev.krzysztoffurtak.jcombi.variations.VariationsBuilder;
 import dev.krzysztoffurtak.jcombi.variations.VariationsWithoutRepetition;
 
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
 public final class Combinatorics {
     private static final long[] FACTORIALS = new long[] {
             1L,
@@ -57,10 +72,38 @@ public final class Combinatorics {
         return CombinationsBuilder.build(n, k);
     }
 
+    public static CombinationsWithBoundedRepetition<int[]> combinations(int[] multiplicities, int k) {
+        return CombinationsBuilder.build(multiplicities, k);
+    }
+
     public static <T> CombinationsBuilder<T> combinations() {
         return CombinationsBuilder.builder();
     }
 
+    public static <T> InputSetBuilder<T, CombinationsBuilder.ViewBuilder<T>> combinationViews() {
+        return CombinationsBuilder.viewBuilder();
+    }
+
+    public static CombinationMasks combinationMasks(int n, int k) {
+        return new CombinationMasks(n, k);
+    }
+
+    public static Pairs pairs(int n) {
+        return new Pairs(n);
+    }
+
+    public static PowerSet powerSet(int n) {
+        return new PowerSet(n);
+    }
+
+    public static SubsetSum subsetSum(long[] values, long target) {
+        return new SubsetSum(values, target);
+    }
+
+    public static SubsetSum subsetSum(long[] values, long target, int k) {
+        return new SubsetSum(values, target, k);
+    }
+
     public static VariationsWithoutRepetition<int[]> variations(int n, int k) {
         return VariationsBuilder.build(n, k);
     }
@@ -69,14 +112,58 @@ public final class Combinatorics {
         return VariationsBuilder.builder();
     }
 
+    public static <T> InputSetBuilder<T, VariationsBuilder.ViewBuilder<T>> variationViews() {
+        return VariationsBuilder.viewBuilder();
+    }
+
+    public static CartesianProduct<int[]> product(int[] radices) {
+        return VariationsBuilder.build(radices);
+    }
+
+    public static <T> CartesianProduct<List<T>> product(List<? extends List<? extends T>> lists) {
+        return VariationsBuilder.product(lists);
+    }
+
     public static PermutationsWithoutRepetition<int[]> permutations(int n) {
         return PermutationsBuilder.build(n);
     }
 
+    public static PermutationsWithRepetition<int[]> permutations(int[] multiplicities) {
+        return PermutationsBuilder.build(multiplicities);
+    }
+
     public static <T> PermutationsBuilder<T> permutations() {
         return PermutationsBuilder.builder();
     }
 
+    public static <T> InputSetBuilder<T, PermutationsBuilder.ViewBuilder<T>> permutationViews() {
+        return PermutationsBuilder.viewBuilder();
+    }
+
+    public static SetPartitions<int[]> setPartitions(int n) {
+        return SetPartitionsBuilder.build(n);
+    }
+
+    public static SetPartitions<int[]> setPartitions(int n, int k) {
+        return SetPartitionsBuilder.build(n, k);
+    }
+
+    public static <T> SetPartitionsBuilder<T> setPartitions() {
+        return SetPartitionsBuilder.builder();
+    }
+
+    public static IntegerPartitions<int[]> integerPartitions(int n) {
+        return new IntegerPartitions<>(n, InputSetBuilder.sequenceFromIndexes());
+    }
+
+    public static IntegerPartitions<int[]> integerPartitions(int n, int k, int m) {
+        return new IntegerPartitions<>(n, k, m, InputSetBuilder.sequenceFromIndexes());
+    }
+
+    public static Compositions<int[]> compositions(int n, int k) {
+        return new Compositions<>(n, k, InputSetBuilder.sequenceFromIndexes());
+    }
+
     /**
      * Returns {@code n!} (the factorial of {@code n}).
      *
@@ -102,6 +189,28 @@ public final class Combinatorics {
         return FACTORIALS[n];
     }
 
+    /**
+     * Returns {@code n!} (the factorial of {@code n}) as {@code BigInteger}.
+     *
+     * @param n {@code n}
+     * @return {@code n!}
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public static BigInteger factorialExact(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater or equal to zero");
+        }
+        if (n < FACTORIALS.length) {
+            return BigInteger.valueOf(FACTORIALS[n]);
+        }
+
+        BigInteger result = BigInteger.valueOf(FACTORIALS[FACTORIALS.length - 1]);
+        for (int i = FACTORIALS.length; i <= n; i++) {
+            result = result.multiply(BigInteger.valueOf(i));
+        }
+        return result;
+    }
+
     /**
      * Returns binomial coefficient of {@code n} and {@code k} (<i>{@code n} choose {@code k}</i>).
      *
@@ -119,17 +228,10 @@ public final class Combinatorics {
      * @param k {@code k}
      * @return binomial coefficient of {@code n} and {@code k}
      * @throws IllegalArgumentException if {@code n < 0} or {@code k < 0} or {@code k > n}
+     * @throws ArithmeticException if {@code nCk} cannot be represented as long
      */
     public static long binomial(int n, int k) {
-        if (n < 0) {
-            throw new IllegalArgumentException("n must be greater or equal to zero");
-        }
-        if (k < 0) {
-            throw new IllegalArgumentException("k must be greater or equal to zero");
-        }
-        if (k > n) {
-            throw new IllegalArgumentException("k must be less or equal to n");
-        }
+        checkBinomialArguments(n, k);
 
         if (n == k) {
             return 1;
@@ -141,15 +243,243 @@ public final class Combinatorics {
             case 1:
                 return n;
             default:
+                // Every partial product is (n choose i + 1) and, for k <= n / 2, it never exceeds the result,
+                // so overflow is reported only if the result itself does not fit in long.
+                final int m = Math.min(k, n - k);
                 long result = 1;
-                for (long i = 0; i < k; i++) {
-                    result *= n - i;
-                    result /= i + 1;
+                for (long i = 0; i < m; i++) {
+                    final long gcd = gcd(result, i + 1);
+                    result = Math.multiplyExact(result / gcd, (n - i) / ((i + 1) / gcd));
                 }
                 return result;
         }
     }
 
+    /**
+     * Returns binomial coefficient of {@code n} and {@code k} (<i>{@code n} choose {@code k}</i>) as
+     * {@code BigInteger}.
+     *
+     * @param n {@code n}
+     * @param k {@code k}
+     * @return binomial coefficient of {@code n} and {@code k}
+     * @throws IllegalArgumentException if {@code n < 0} or {@code k < 0} or {@code k > n}
+     */
+    public static BigInteger binomialExact(int n, int k) {
+        checkBinomialArguments(n, k);
+
+        final int m = Math.min(k, n - k);
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < m; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Returns Bell number of {@code n} (the number of partitions of a set of {@code n} elements).
+     *
+     * @param n {@code n}
+     * @return Bell number of {@code n}
+     * @throws IllegalArgumentException if {@code n < 0}
+     * @throws ArithmeticException if Bell number of {@code n} cannot be represented as long (that's the case for
+     *                             {@code n > 25})
+     */
+    public static long bell(int n) {
+        return longValueExact(bellExact(n));
+    }
+
+    /**
+     * Returns Bell number of {@code n} (the number of partitions of a set of {@code n} elements) as {@code BigInteger}.
+     *
+     * @param n {@code n}
+     * @return Bell number of {@code n}
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public static BigInteger bellExact(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater or equal to zero");
+        }
+
+        BigInteger result = BigInteger.ZERO;
+        for (final BigInteger stirling : stirlingSecondKindRow(n)) {
+            result = result.add(stirling);
+        }
+        return result;
+    }
+
+    /**
+     * Returns Stirling number of the second kind of {@code n} and {@code k} (the number of partitions of a set of
+     * {@code n} elements into {@code k} non-empty blocks).
+     *
+     * @param n {@code n}
+     * @param k {@code k}
+     * @return Stirling number of the second kind of {@code n} and {@code k}
+     * @throws IllegalArgumentException if {@code n < 0} or {@code k < 0} or {@code k > n}
+     * @throws ArithmeticException if the result cannot be represented as long
+     */
+    public static long stirlingSecondKind(int n, int k) {
+        return longValueExact(stirlingSecondKindExact(n, k));
+    }
+
+    /**
+     * Returns Stirling number of the second kind of {@code n} and {@code k} as {@code BigInteger}.
+     *
+     * @param n {@code n}
+     * @param k {@code k}
+     * @return Stirling number of the second kind of {@code n} and {@code k}
+     * @throws IllegalArgumentException if {@code n < 0} or {@code k < 0} or {@code k > n}
+     */
+    public static BigInteger stirlingSecondKindExact(int n, int k) {
+        checkBinomialArguments(n, k);
+        return stirlingSecondKindRow(n)[k];
+    }
+
+    /**
+     * Returns partition number of {@code n} (the number of ways to write {@code n} as a sum of positive integers,
+     * regardless of their order).
+     *
+     * @param n {@code n}
+     * @return partition number of {@code n}
+     * @throws IllegalArgumentException if {@code n < 0}
+     * @throws ArithmeticException if partition number of {@code n} cannot be represented as long (that's the case
+     *                             for {@code n > 405})
+     */
+    public static long partitionNumber(int n) {
+        return partitionNumber(n, n, n);
+    }
+
+    /**
+     * Returns partition number of {@code n} as {@code BigInteger}.
+     *
+     * @param n {@code n}
+     * @return partition number of {@code n}
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public static BigInteger partitionNumberExact(int n) {
+        return partitionNumberExact(n, n, n);
+    }
+
+    /**
+     * Returns the number of partitions of {@code n} into at most {@code k} parts, none of them greater than {@code m}.
+     *
+     * @param n {@code n}
+     * @param k maximal number of parts
+     * @param m maximal part
+     * @return number of partitions of {@code n}
+     * @throws IllegalArgumentException if {@code n < 0} or {@code k < 0} or {@code m < 0}
+     * @throws ArithmeticException if the result cannot be represented as long
+     */
+    public static long partitionNumber(int n, int k, int m) {
+        checkPartitionArguments(n, k, m);
+        final int parts = Math.min(Math.min(k, m), n);
+        final int part = Math.min(Math.max(k, m), n);
+        if ((long) parts * part < n) {
+            return 0;
+        }
+
+        // Coefficients of Gaussian binomial coefficient (parts + part choose parts), which is symmetric, so the one
+        // at min(n, parts * part - n) is computed, and by unimodality no lower one exceeds it
+        final int degree = (int) Math.min(n, (long) parts * part - n);
+        final long[] coefficients = new long[degree + 1];
+        coefficients[0] = 1;
+        for (int i = 1; i <= parts; i++) {
+            for (int j = degree; j >= part + i; j--) {
+                coefficients[j] = Math.subtractExact(coefficients[j], coefficients[j - part - i]);
+            }
+            for (int j = i; j <= degree; j++) {
+                coefficients[j] = Math.addExact(coefficients[j], coefficients[j - i]);
+            }
+        }
+        return coefficients[degree];
+    }
+
+    /**
+     * Returns the number of partitions of {@code n} into at most {@code k} parts, none of them greater than {@code m},
+     * as {@code BigInteger}.
+     *
+     * @param n {@code n}
+     * @param k maximal number of parts
+     * @param m maximal part
+     * @return number of partitions of {@code n}
+     * @throws IllegalArgumentException if {@code n < 0} or {@code k < 0} or {@code m < 0}
+     */
+    public static BigInteger partitionNumberExact(int n, int k, int m) {
+        checkPartitionArguments(n, k, m);
+        final int parts = Math.min(Math.min(k, m), n);
+        final int part = Math.min(Math.max(k, m), n);
+        if ((long) parts * part < n) {
+            return BigInteger.ZERO;
+        }
+
+        final int degree = (int) Math.min(n, (long) parts * part - n);
+        final BigInteger[] coefficients = new BigInteger[degree + 1];
+        Arrays.fill(coefficients, BigInteger.ZERO);
+        coefficients[0] = BigInteger.ONE;
+        for (int i = 1; i <= parts; i++) {
+            for (int j = degree; j >= part + i; j--) {
+                coefficients[j] = coefficients[j].subtract(coefficients[j - part - i]);
+            }
+            for (int j = i; j <= degree; j++) {
+                coefficients[j] = coefficients[j].add(coefficients[j - i]);
+            }
+        }
+        return coefficients[degree];
+    }
+
+    // S(n, k) for k = 0..n, from S(i, j) = j * S(i - 1, j) + S(i - 1, j - 1)
+    private static BigInteger[] stirlingSecondKindRow(int n) {
+        final BigInteger[] row = new BigInteger[n + 1];
+        row[0] = BigInteger.ONE;
+        for (int i = 1; i <= n; i++) {
+            row[i] = BigInteger.ZERO;
+            for (int j = i; j > 0; j--) {
+                row[j] = row[j].multiply(BigInteger.valueOf(j)).add(row[j - 1]);
+            }
+            row[0] = BigInteger.ZERO;
+        }
+        return row;
+    }
+
+    private static long longValueExact(BigInteger value) {
+        if (value.bitLength() >= Long.SIZE) {
+            throw new ArithmeticException("long overflow");
+        }
+        return value.longValue();
+    }
+
+    private static void checkPartitionArguments(int n, int k, int m) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater or equal to zero");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater or equal to zero");
+        }
+        if (m < 0) {
+            throw new IllegalArgumentException("m must be greater or equal to zero");
+        }
+    }
+
+    private static void checkBinomialArguments(int n, int k) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater or equal to zero");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater or equal to zero");
+        }
+        if (k > n) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            final long tmp = a % b;
+            a = b;
+            b = tmp;
+        }
+        return a;
+    }
+
     private Combinatorics() {
     }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@code Spliterator} over index arrays produced by a backtracking search, whose first index lies within
+ * {@code [from, to)}.
+ *
+ * <p>
+ * The number of index arrays is not known in advance, so splitting halves the range of first indexes (before the
+ * traversal starts). Each part runs its own {@link Search}, obtained from {@code searches}.
+ * </p>
+ *
+ * <p>
+ * If {@code visitor} is a {@link ViewFunction}, it is applied only once per search and the same view is handed out
+ * for every index array of the search.
+ * </p>
+ *
+ * @param <T> type of elements produced by {@code visitor}
+ */
+public final class FirstElementSpliterator<T> implements Spliterator<T> {
+    private static final int CHARACTERISTICS = ORDERED | IMMUTABLE;
+
+    private final Supplier<? extends Search> searches;
+    private final Function<int[], T> visitor;
+    private final int to;
+    private int from;
+    private Search search;
+    private T view;
+    private boolean exhausted;
+
+    /**
+     * Backtracking search enumerating index arrays in lexicographic order.
+     */
+    public interface Search {
+        /**
+         * Positions this search at the first index array whose first index lies within {@code [from, to)}.
+         *
+         * @param from first index (inclusive)
+         * @param to   last index (exclusive)
+         * @return {@code true} if such index array exists
+         */
+        boolean start(int from, int to);
+
+        /**
+         * Returns the current index array, which is modified in place by {@link #advance()}.
+         *
+         * @return current index array
+         */
+        int[] index();
+
+        /**
+         * Advances this search to the next index array (with first index still less than {@code to}).
+         *
+         * @return {@code true} if index array has been advanced, {@code false} if it was the last one
+         */
+        boolean advance();
+    }
+
+    /**
+     * Creates a {@code Spliterator} over index arrays with first index within {@code [from, to)}.
+     *
+     * @param from     first index (inclusive)
+     * @param to       last index (exclusive)
+     * @param searches supplier of new searches
+     * @param visitor  function converting index arrays into elements
+     */
+    public FirstElementSpliterator(int from, int to, Supplier<? extends Search> searches, Function<int[], T> visitor) {
+        this.from = from;
+        this.to = to;
+        this.searches = searches;
+        this.visitor = visitor;
+        this.exhausted = from >= to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (!started()) {
+            return false;
+        }
+
+        action.accept(element(search.index()));
+        exhausted = !search.advance();
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (!started()) {
+            return;
+        }
+
+        final int[] index = search.index();
+        do {
+            action.accept(element(index));
+        } while (search.advance());
+        exhausted = true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (search != null || exhausted || to - from < 2) {
+            return null;
+        }
+
+        final int middle = (from + to) >>> 1;
+        final FirstElementSpliterator<T> prefix = new FirstElementSpliterator<>(from, middle, searches, visitor);
+        from = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return exhausted ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    private boolean started() {
+        if (exhausted) {
+            return false;
+        }
+        if (search == null) {
+            search = searches.get();
+            exhausted = !search.start(from, to);
+            if (visitor instanceof ViewFunction) {
+                view = visitor.apply(search.index());
+            }
+        }
+        return !exhausted;
+    }
+
+    private T element(int[] index) {
+        return view != null ? view : visitor.apply(index);
+    }
+}
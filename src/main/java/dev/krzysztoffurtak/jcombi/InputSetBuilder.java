@@ -39,6 +39,10 @@ public interface InputSetBuilder<T, B> {
         return index -> Arrays.stream(index).mapToObj(inputSet::get).collect(Collectors.toUnmodifiableList());
     }
 
+    static <T> ViewFunction<TupleView<T>> sequenceViewFromInputSet(List<T> inputSet) {
+        return index -> new TupleView<>(inputSet, index);
+    }
+
     // TODO: Rename it!
     static Function<int[], int[]> sequenceFromIndexes() {
         return index -> Arrays.copyOf(index, index.length);
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+/**
+ * Represents an operation that accepts an index array and tells whether the iteration should continue.
+ *
+ * <p>
+ * The index array is owned by the enumeration and is modified in place after the operation returns. It must be
+ * neither modified nor retained by the operation (copy it if it has to outlive the call).
+ * </p>
+ */
+@FunctionalInterface
+public interface IntArrayConsumer {
+    /**
+     * Performs this operation on given index array.
+     *
+     * @param indices index array (read-only)
+     * @return {@code true} to continue the iteration, {@code false} to stop it
+     */
+    boolean accept(int[] indices);
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+/**
+ * Conversions between sequences of distinct indexes and their (partial) Lehmer codes.
+ *
+ * <p>
+ * {@code i}-th digit of Lehmer code of a sequence {@code s} of distinct indexes less than {@code n} is the number of
+ * indexes less than {@code s[i]} that do not occur in {@code s[0..i)}. Digit {@code i} takes values from
+ * {@code [0, n - i)}, so the code of a {@code k}-prefix is a falling-factorial number whose value is the position of
+ * the prefix in lexicographic order.
+ * </p>
+ *
+ * <p>
+ * Long prefixes are handled with a Fenwick tree in {@code O(n + k log n)}. Short prefixes ({@code k * k <= n}) are
+ * handled in {@code O(k * k)}, independently of {@code n}.
+ * </p>
+ */
+public final class LehmerCode {
+
+    /**
+     * Computes Lehmer code of first {@code digits.length} elements of {@code sequence}.
+     *
+     * @param n        number of available indexes
+     * @param sequence sequence of distinct indexes less than {@code n}
+     * @param digits   array where Lehmer code is stored
+     * @return {@code false} if indexes of {@code sequence} are not distinct or not less than {@code n}
+     */
+    public static boolean encode(int n, int[] sequence, int[] digits) {
+        final int k = digits.length;
+        if ((long) k * k <= n) {
+            for (int i = 0; i < k; i++) {
+                final int element = sequence[i];
+                if (element < 0 || element >= n) {
+                    return false;
+                }
+                int digit = element;
+                for (int j = 0; j < i; j++) {
+                    if (sequence[j] == element) {
+                        return false;
+                    }
+                    if (sequence[j] < element) {
+                        digit--;
+                    }
+                }
+                digits[i] = digit;
+            }
+        } else {
+            final FenwickTree unused = new FenwickTree(n);
+            for (int i = 0; i < k; i++) {
+                final int element = sequence[i];
+                if (element < 0 || element >= n || !unused.contains(element)) {
+                    return false;
+                }
+                digits[i] = unused.countLessThan(element);
+                unused.remove(element);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes sequence of distinct indexes from its Lehmer code.
+     *
+     * <p>
+     * First {@code digits.length} elements of {@code sequence} are decoded from {@code digits}. The remaining elements
+     * of {@code sequence} (if any) are filled with unused indexes in ascending order.
+     * </p>
+     *
+     * @param n        number of available indexes
+     * @param digits   Lehmer code ({@code 0 <= digits[i] < n - i})
+     * @param sequence array where decoded sequence is stored
+     */
+    public static void decode(int n, int[] digits, int[] sequence) {
+        final int k = digits.length;
+        if ((long) k * k <= n) {
+            final int[] used = new int[k];
+            for (int i = 0; i < k; i++) {
+                int element = digits[i];
+                int position = 0;
+                while (position < i && used[position] <= element) {
+                    element++;
+                    position++;
+                }
+                System.arraycopy(used, position, used, position + 1, i - position);
+                used[position] = element;
+                sequence[i] = element;
+            }
+            fillTail(n, k, used, sequence);
+        } else {
+            final FenwickTree unused = new FenwickTree(n);
+            for (int i = 0; i < k; i++) {
+                sequence[i] = unused.select(digits[i]);
+                unused.remove(sequence[i]);
+            }
+            for (int i = k, element = 0; i < sequence.length; i++, element++) {
+                while (!unused.contains(element)) {
+                    element++;
+                }
+                sequence[i] = element;
+            }
+        }
+    }
+
+    private static void fillTail(int n, int k, int[] used, int[] sequence) {
+        int position = 0;
+        for (int i = k, element = 0; i < sequence.length && element < n; element++) {
+            if (position < k && used[position] == element) {
+                position++;
+            } else {
+                sequence[i++] = element;
+            }
+        }
+    }
+
+    private static final class FenwickTree {
+        private final int[] tree;
+        private final int highestBit;
+
+        FenwickTree(int n) {
+            tree = new int[n + 1];
+            for (int i = 1; i <= n; i++) {
+                tree[i] = i & -i;
+            }
+            highestBit = n == 0 ? 0 : Integer.highestOneBit(n);
+        }
+
+        boolean contains(int element) {
+            return countLessThan(element + 1) - countLessThan(element) == 1;
+        }
+
+        int countLessThan(int element) {
+            int count = 0;
+            for (int i = element; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+
+        void remove(int element) {
+            for (int i = element + 1; i < tree.length; i += i & -i) {
+                tree[i]--;
+            }
+        }
+
+        int select(int rank) {
+            int position = 0;
+            int remaining = rank;
+            for (int bit = highestBit; bit > 0; bit >>= 1) {
+                final int next = position + bit;
+                if (next < tree.length && tree[next] <= remaining) {
+                    position = next;
+                    remaining -= tree[next];
+                }
+            }
+            return position;
+        }
+    }
+
+    private LehmerCode() {
+    }
+}
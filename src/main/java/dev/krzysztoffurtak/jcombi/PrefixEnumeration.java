@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+/**
+ * Prefix-pruning and prefix-incremental traversals of a lexicographically ordered sequence of index arrays.
+ *
+ * <p>
+ * Both traversals are driven by a {@link Successor}, which advances index array in place and tells the first
+ * position it has changed. Consecutive index arrays share the prefix before that position, so filters and folds are
+ * evaluated only for positions from the first changed one onward.
+ * </p>
+ *
+ * <p>
+ * If index array holds more than {@code width} elements (the state of the successor does not have to be the tuple
+ * itself), actions and visitors are given a buffer with the first {@code width} elements.
+ * </p>
+ */
+public final class PrefixEnumeration {
+
+    /**
+     * Advances index array (in place) to the next one in lexicographic order.
+     */
+    @FunctionalInterface
+    public interface Successor {
+        /**
+         * Advances given index array to the next one.
+         *
+         * @param index index array
+         * @return position of the first changed index, or {@code -1} if it was the last index array
+         */
+        int advance(int[] index);
+    }
+
+    /**
+     * Advances index array (in place) past all index arrays sharing its prefix.
+     */
+    @FunctionalInterface
+    public interface Skip {
+        /**
+         * Advances given index array past all index arrays sharing its prefix of length {@code depth + 1}. Positions
+         * after {@code depth} are expected to be in their lexicographically smallest arrangement (as left by
+         * {@link Successor#advance(int[])}).
+         *
+         * @param index index array
+         * @param depth last position of the prefix to be skipped
+         * @return position of the first changed index, or {@code -1} if there are no more index arrays
+         */
+        int skip(int[] index, int depth);
+    }
+
+    /**
+     * Performs given action for each index array (starting with {@code index}) accepted by given prefix filter, until
+     * all index arrays have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * The filter is evaluated on each prefix of length {@code 1..width} (only for prefixes that have changed since the
+     * previous index array). Once it rejects a prefix, all index arrays starting with it are skipped without being
+     * generated, so constraints decidable from a prefix prune whole subtrees of the enumeration.
+     * </p>
+     *
+     * @param index     index array of the first tuple (it is modified in place)
+     * @param width     number of leading elements of index array that make a tuple
+     * @param successor function advancing index array to the next one
+     * @param skip      function advancing index array past all index arrays sharing its prefix
+     * @param filter    filter of prefixes
+     * @param action    action to be performed for each accepted tuple
+     * @return {@code true} if all index arrays have been processed, {@code false} if the action stopped the iteration
+     */
+    public static boolean forEachIndices(int[] index, int width, Successor successor, Skip skip,
+                                         PrefixPredicate filter, IntArrayConsumer action) {
+        final int[] tuple = index.length == width ? index : new int[width];
+        int changed = 0;
+        while (changed >= 0) {
+            int depth = changed;
+            while (depth < width && filter.test(index, depth + 1)) {
+                depth++;
+            }
+            if (depth < width) {
+                changed = skip.skip(index, depth);
+                continue;
+            }
+            if (tuple != index) {
+                System.arraycopy(index, 0, tuple, 0, width);
+            }
+            if (!action.accept(tuple)) {
+                return false;
+            }
+            changed = successor.advance(index);
+        }
+        return true;
+    }
+
+    /**
+     * Folds each index array (starting with {@code index}) with given visitor, until all index arrays have been
+     * processed or the visitor returns {@code false}.
+     *
+     * <p>
+     * The visitor is {@link PrefixVisitor#pop(int) popped} and {@link PrefixVisitor#push(int, int) pushed} only for
+     * positions from the first changed one onward. Once all index arrays have been processed every remaining index is
+     * popped.
+     * </p>
+     *
+     * @param index     index array of the first tuple (it is modified in place)
+     * @param width     number of leading elements of index array that make a tuple
+     * @param successor function advancing index array to the next one
+     * @param visitor   visitor to be given indexes of each tuple
+     * @return {@code true} if all index arrays have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public static boolean foldIndices(int[] index, int width, Successor successor, PrefixVisitor visitor) {
+        final int[] tuple = index.length == width ? index : new int[width];
+        int changed = 0;
+        while (true) {
+            for (int depth = changed; depth < width; depth++) {
+                tuple[depth] = index[depth];
+                visitor.push(depth, index[depth]);
+            }
+            if (!visitor.accept(tuple)) {
+                return false;
+            }
+            changed = successor.advance(index);
+            for (int depth = width - 1; depth >= Math.max(changed, 0); depth--) {
+                visitor.pop(depth);
+            }
+            if (changed < 0) {
+                return true;
+            }
+        }
+    }
+}
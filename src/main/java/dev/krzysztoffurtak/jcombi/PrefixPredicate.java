@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+/**
+ * Represents a predicate deciding whether a prefix of an index array can be extended to accepted index arrays.
+ *
+ * <p>
+ * Only the first {@code depth} entries of the array form the prefix, remaining ones are meaningless. The array is
+ * owned by the enumeration and must be neither modified nor retained by the predicate.
+ * </p>
+ */
+@FunctionalInterface
+public interface PrefixPredicate {
+    /**
+     * Evaluates this predicate on given prefix.
+     *
+     * @param indices index array whose first {@code depth} entries form the prefix (read-only)
+     * @param depth   length of the prefix
+     * @return {@code true} if the prefix may be extended, {@code false} to skip all index arrays starting with it
+     */
+    boolean test(int[] indices, int depth);
+}
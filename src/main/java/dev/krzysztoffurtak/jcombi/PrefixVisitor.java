@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+/**
+ * Represents an incremental fold over index arrays enumerated in lexicographic order.
+ *
+ * <p>
+ * Consecutive index arrays share a prefix, so instead of evaluating each of them from scratch the enumeration
+ * {@link #push(int, int) pushes} only the indexes from the first changed position onward and {@link #pop(int) pops}
+ * the ones about to be replaced. An evaluator keeping per-depth state (e.g. partial sums in an array indexed by
+ * {@code depth}) thus does amortized constant work per index array.
+ * </p>
+ */
+public interface PrefixVisitor {
+    /**
+     * Extends the current prefix with given index.
+     *
+     * @param depth position of the index (the prefix has {@code depth} indexes before the call)
+     * @param index index at the position
+     */
+    void push(int depth, int index);
+
+    /**
+     * Removes the last index from the current prefix. Does nothing by default, which is enough for evaluators
+     * overwriting their per-depth state on {@link #push(int, int)}.
+     *
+     * @param depth position of the removed index
+     */
+    default void pop(int depth) {
+    }
+
+    /**
+     * Performs this operation on complete index array, after all its indexes have been pushed.
+     *
+     * @param indices index array (read-only)
+     * @return {@code true} to continue the iteration, {@code false} to stop it
+     */
+    boolean accept(int[] indices);
+}
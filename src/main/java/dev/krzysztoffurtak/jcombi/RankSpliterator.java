@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * {@code Spliterator} over a range of ranks {@code [origin, fence)} of a lexicographically ordered sequence of
+ * index arrays.
+ *
+ * <p>
+ * Splitting halves the range of ranks. The index array of the suffix is unranked lazily, so that the cost of
+ * unranking is paid by the thread that is going to traverse it. Within a range the sequence is traversed in place
+ * with use of {@code successor}.
+ * </p>
+ *
+ * <p>
+ * If index array holds more than {@code width} elements (the state of the successor does not have to be the tuple
+ * itself), {@code visitor} is given a buffer with the first {@code width} elements, owned by this spliterator.
+ * </p>
+ *
+ * <p>
+ * If {@code visitor} is a {@link ViewFunction}, it is applied only once per traversed range and the same view is
+ * handed out for every tuple of the range.
+ * </p>
+ *
+ * @param <T> type of elements produced by {@code visitor}
+ */
+public final class RankSpliterator<T> implements Spliterator<T> {
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+
+    private final LongFunction<int[]> unranking;
+    private final Consumer<int[]> successor;
+    private final Function<int[], T> visitor;
+    private final int width;
+    private final long fence;
+    private long origin;
+    private int[] index;
+    private int[] buffer;
+    private T view;
+
+    /**
+     * Creates a {@code Spliterator} over ranks {@code [0, fence)}.
+     *
+     * @param fence     number of elements in the sequence
+     * @param width     number of leading elements of index array passed to {@code visitor}
+     * @param unranking function returning a new index array of given rank
+     * @param successor function advancing index array (in place) to the next one in the sequence
+     * @param visitor   function creating elements from index array
+     */
+    public RankSpliterator(long fence, int width, LongFunction<int[]> unranking, Consumer<int[]> successor,
+                           Function<int[], T> visitor) {
+        this(0, fence, width, null, unranking, successor, visitor);
+    }
+
+    private RankSpliterator(long origin, long fence, int width, int[] index, LongFunction<int[]> unranking,
+                            Consumer<int[]> successor, Function<int[], T> visitor) {
+        if (fence < 0) {
+            throw new IllegalArgumentException("fence must be greater or equal to zero");
+        }
+        if (width < 0) {
+            throw new IllegalArgumentException("width must be greater or equal to zero");
+        }
+        if (unranking == null) {
+            throw new IllegalArgumentException("unranking cannot be null");
+        }
+        if (successor == null) {
+            throw new IllegalArgumentException("successor cannot be null");
+        }
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+
+        this.origin = origin;
+        this.fence = fence;
+        this.width = width;
+        this.index = index;
+        this.unranking = unranking;
+        this.successor = successor;
+        this.visitor = visitor;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (origin >= fence) {
+            return false;
+        }
+
+        final int[] current = current();
+        action.accept(element());
+        if (++origin < fence) {
+            successor.accept(current);
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (origin >= fence) {
+            return;
+        }
+
+        final int[] current = current();
+        while (true) {
+            action.accept(element());
+            if (++origin >= fence) {
+                break;
+            }
+            successor.accept(current);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        final long size = fence - origin;
+        if (size < 2) {
+            return null;
+        }
+
+        final long middle = origin + size / 2;
+        final Spliterator<T> prefix = new RankSpliterator<>(
+                origin, middle, width, index, unranking, successor, visitor);
+        origin = middle;
+        index = null;
+        view = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    private int[] current() {
+        if (index == null) {
+            index = unranking.apply(origin);
+        }
+        if (buffer == null && width < index.length) {
+            buffer = new int[width];
+        }
+        if (view == null && visitor instanceof ViewFunction) {
+            view = visitor.apply(buffer == null ? index : buffer);
+        }
+        return index;
+    }
+
+    private T element() {
+        final int[] tuple = tuple();
+        return view != null ? view : visitor.apply(tuple);
+    }
+
+    private int[] tuple() {
+        if (buffer == null) {
+            return index;
+        }
+        System.arraycopy(index, 0, buffer, 0, width);
+        return buffer;
+    }
+}
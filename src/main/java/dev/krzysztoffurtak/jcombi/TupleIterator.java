@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@code Iterator} over a lexicographically ordered sequence of index arrays, traversed in place with use of
+ * {@code successor}.
+ *
+ * <p>
+ * Besides visiting tuples one by one with {@link #next()}, tuples can be pulled in blocks with
+ * {@link #nextBatch(int[], int)}, which bypasses the visitor and writes index arrays contiguously into a flat buffer.
+ * Both methods share the position of the iterator.
+ * </p>
+ *
+ * <p>
+ * If {@code visitor} is a {@link ViewFunction}, it is applied only once and {@link #next()} returns the same view
+ * for every tuple.
+ * </p>
+ *
+ * @param <T> type of elements produced by {@code visitor}
+ */
+public final class TupleIterator<T> implements Iterator<T> {
+    private final int[] index;
+    private final int[] buffer;
+    private final int width;
+    private final Predicate<int[]> successor;
+    private final Function<int[], T> visitor;
+    private final T view;
+    private boolean nextAvailable;
+    private boolean advancePending;
+
+    /**
+     * Creates an {@code Iterator} starting at {@code index}.
+     *
+     * @param index     index array of the first tuple (it is modified in place)
+     * @param width     number of leading elements of index array that make a tuple
+     * @param successor function advancing index array (in place) to the next one in the sequence, returning
+     *                  {@code false} if there is no next one
+     * @param visitor   function creating elements from index array
+     */
+    public TupleIterator(int[] index, int width, Predicate<int[]> successor, Function<int[], T> visitor) {
+        this(index, width, successor, visitor, true);
+    }
+
+    private TupleIterator(int[] index, int width, Predicate<int[]> successor, Function<int[], T> visitor,
+                          boolean nextAvailable) {
+        if (index == null) {
+            throw new IllegalArgumentException("index cannot be null");
+        }
+        if (width < 0 || width > index.length) {
+            throw new IllegalArgumentException("width must be greater or equal to zero and less or equal to "
+                    + "length of index");
+        }
+        if (successor == null) {
+            throw new IllegalArgumentException("successor cannot be null");
+        }
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+
+        this.index = index;
+        this.buffer = width < index.length ? new int[width] : index;
+        this.width = width;
+        this.successor = successor;
+        this.visitor = visitor;
+        this.view = visitor instanceof ViewFunction ? visitor.apply(buffer) : null;
+        this.nextAvailable = nextAvailable;
+    }
+
+    /**
+     * Returns an {@code Iterator} with no tuples.
+     *
+     * @param <T> type of elements
+     * @return an exhausted {@code Iterator}
+     */
+    public static <T> TupleIterator<T> empty() {
+        return new TupleIterator<>(new int[0], 0, index -> false, index -> null, false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (advancePending) {
+            nextAvailable = successor.test(index);
+            advancePending = false;
+        }
+        return nextAvailable;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advancePending = true;
+        final int[] tuple = tuple();
+        return view != null ? view : visitor.apply(tuple);
+    }
+
+    /**
+     * Writes index arrays of up to {@code maxTuples} next tuples contiguously into {@code flat}, without applying the
+     * visitor.
+     *
+     * <p>
+     * {@code i}-th written tuple occupies {@code flat[i * width .. (i + 1) * width)}, where {@code width} is the size
+     * of a tuple.
+     * </p>
+     *
+     * @param flat      buffer of length at least {@code maxTuples * width}
+     * @param maxTuples maximal number of tuples to write
+     * @return number of written tuples ({@code 0} if the iterator is exhausted)
+     * @throws IllegalArgumentException if {@code maxTuples < 0} or {@code flat} is too short
+     */
+    public int nextBatch(int[] flat, int maxTuples) {
+        if (maxTuples < 0) {
+            throw new IllegalArgumentException("maxTuples must be greater or equal to zero");
+        }
+        if (flat == null || flat.length < (long) maxTuples * width) {
+            throw new IllegalArgumentException("flat must be an array of length at least maxTuples * width");
+        }
+
+        int count = 0;
+        for (int offset = 0; count < maxTuples && hasNext(); count++, offset += width) {
+            System.arraycopy(index, 0, flat, offset, width);
+            advancePending = true;
+        }
+        return count;
+    }
+
+    private int[] tuple() {
+        if (buffer != index) {
+            System.arraycopy(index, 0, buffer, 0, width);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable {@code List} view of elements of the input set selected by an index array.
+ *
+ * <p>
+ * The view does not copy anything: it reads through the live index array of an enumeration, so its contents change
+ * as the enumeration advances, and iterators hand out the same view for every tuple. Use {@link #snapshot()} when
+ * the tuple has to be retained.
+ * </p>
+ *
+ * @param <T> type of elements of the input set
+ */
+public final class TupleView<T> extends AbstractList<T> implements RandomAccess {
+    private final List<T> inputSet;
+    private final int[] indices;
+
+    /**
+     * Creates a view of elements of {@code inputSet} selected by {@code indices}.
+     *
+     * @param inputSet input set (should support fast random access)
+     * @param indices  index array
+     */
+    public TupleView(List<T> inputSet, int[] indices) {
+        if (inputSet == null) {
+            throw new IllegalArgumentException("inputSet cannot be null");
+        }
+        if (indices == null) {
+            throw new IllegalArgumentException("indices cannot be null");
+        }
+
+        this.inputSet = inputSet;
+        this.indices = indices;
+    }
+
+    @Override
+    public T get(int index) {
+        return inputSet.get(indices[Objects.checkIndex(index, indices.length)]);
+    }
+
+    @Override
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Returns an unmodifiable copy of the elements currently selected by this view.
+     *
+     * @return an unmodifiable {@code List} independent of the enumeration
+     */
+    public List<T> snapshot() {
+        return List.copyOf(this);
+    }
+}
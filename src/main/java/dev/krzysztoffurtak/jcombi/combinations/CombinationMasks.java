@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combinations without repetition of {@code k} out of {@code n <= 64} elements represented as bitmasks.
+ *
+ * <p>
+ * Bit {@code i} of a mask is set if {@code i}-th element of the input set is selected. Masks are enumerated in
+ * increasing unsigned order (colexicographic order of combinations) and the next mask is computed with a handful
+ * of bit operations (Gosper's hack). For {@code n < 64} it is also increasing numerical order, but for {@code n = 64}
+ * masks with bit 63 set are negative and come last.
+ * </p>
+ */
+public class CombinationMasks {
+    private final int n;
+    private final int k;
+
+    public CombinationMasks(int n, int k) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater of equal to zero");
+        }
+        if (n > Long.SIZE) {
+            throw new IllegalArgumentException("n must be less or equal to 64");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (k > n) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+
+        this.n = n;
+        this.k = k;
+    }
+
+    /**
+     * Returns the size of the input set from which combinations are selected.
+     *
+     * @return size of the input set
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the size of the combinations to be enumerated.
+     *
+     * @return size of the combination
+     */
+    public int k() {
+        return k;
+    }
+
+    public long count() {
+        return empty() ? 0 : Combinatorics.binomial(n, k);
+    }
+
+    /**
+     * Returns position of the mask in increasing unsigned order.
+     *
+     * @param mask mask of the combination
+     * @return position of the mask ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code mask} is not one of enumerated masks
+     */
+    public long rank(long mask) {
+        if (empty() || Long.bitCount(mask) != k || n < Long.SIZE && mask >>> n != 0) {
+            throw new IllegalArgumentException("mask must have k bits set, all of them less than n");
+        }
+
+        long rank = 0;
+        long remaining = mask;
+        for (int i = 1; remaining != 0; i++) {
+            final int element = Long.numberOfTrailingZeros(remaining);
+            if (element >= i) {
+                rank += Combinatorics.binomial(element, i);
+            }
+            remaining &= remaining - 1;
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the mask at given position of increasing unsigned order.
+     *
+     * @param rank position of the mask
+     * @return mask of the combination
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public long unrank(long rank) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+
+        long mask = 0;
+        int element = n;
+        for (int i = k; i > 0; i--) {
+            element--;
+            while (element >= i && Combinatorics.binomial(element, i) > rank) {
+                element--;
+            }
+            if (element >= i) {
+                rank -= Combinatorics.binomial(element, i);
+            }
+            mask |= 1L << element;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} with all masks of this as its source.
+     *
+     * @return sequential {@code LongStream} over all masks
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code LongStream} with all masks of this as its source.
+     *
+     * @return possibly parallel {@code LongStream} over all masks
+     */
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over all masks of this. The {@code Spliterator} knows its exact size and splits
+     * the range of ranks in half.
+     *
+     * @return a {@code Spliterator}
+     */
+    public Spliterator.OfLong spliterator() {
+        return new MaskSpliterator(0, count());
+    }
+
+    /**
+     * Returns elements of the input set selected by the mask.
+     *
+     * @param mask     mask of the combination
+     * @param inputSet input set
+     * @param <T>      type of elements of the input set
+     * @return unmodifiable {@code List} of selected elements (in the order of the input set)
+     */
+    public static <T> List<T> select(long mask, List<T> inputSet) {
+        final List<T> elements = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            elements.add(inputSet.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Returns index array of the combination represented by the mask.
+     *
+     * @param mask mask of the combination
+     * @return increasing sequence of indexes of set bits
+     */
+    public static int[] indexes(long mask) {
+        final int[] index = new int[Long.bitCount(mask)];
+        long remaining = mask;
+        for (int i = 0; remaining != 0; i++, remaining &= remaining - 1) {
+            index[i] = Long.numberOfTrailingZeros(remaining);
+        }
+        return index;
+    }
+
+    private boolean empty() {
+        return n == 0 || k == 0;
+    }
+
+    private static long next(long mask) {
+        final long lowest = mask & -mask;
+        final long ripple = mask + lowest;
+        return (((ripple ^ mask) >>> 2) / lowest) | ripple;
+    }
+
+    private final class MaskSpliterator implements Spliterator.OfLong {
+        private static final int CHARACTERISTICS = ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+
+        private final long fence;
+        private long origin;
+        private long mask;
+        private boolean unranked;
+
+        MaskSpliterator(long origin, long fence) {
+            this.origin = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            if (origin >= fence) {
+                return false;
+            }
+
+            action.accept(current());
+            if (++origin < fence) {
+                mask = next(mask);
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+            if (origin >= fence) {
+                return;
+            }
+
+            long current = current();
+            while (true) {
+                action.accept(current);
+                if (++origin >= fence) {
+                    break;
+                }
+                current = next(current);
+            }
+            mask = current;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            final long size = fence - origin;
+            if (size < 2) {
+                return null;
+            }
+
+            final long middle = origin + size / 2;
+            final MaskSpliterator prefix = new MaskSpliterator(origin, middle);
+            prefix.mask = mask;
+            prefix.unranked = unranked;
+            origin = middle;
+            unranked = false;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            // masks follow natural order of long only while the sign bit cannot be set
+            return n < Long.SIZE ? CHARACTERISTICS | SORTED : CHARACTERISTICS;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            if (n == Long.SIZE) {
+                throw new IllegalStateException();
+            }
+            return null;
+        }
+
+        private long current() {
+            if (!unranked) {
+                mask = unrank(origin);
+                unranked = true;
+            }
+            return mask;
+        }
+    }
+}
@@ -21,13 +21,21 @@
  */
 package dev.krzysztoffurtak.jcombi.combinations;
 
-import java.util.Iterator;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.PrefixEnumeration;
+import dev.krzysztoffurtak.jcombi.PrefixPredicate;
+import dev.krzysztoffurtak.jcombi.PrefixVisitor;
+import dev.krzysztoffurtak.jcombi.RankSpliterator;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import static java.util.Collections.emptyIterator;
-
 public abstract class Combinations<T> implements Iterable<T> {
     protected final int n;
     protected final int k;
@@ -67,8 +75,87 @@ public abstract class Combinations<T> implements Iterable<T> {
         return k;
     }
 
+    /**
+     * Returns the number of combinations.
+     *
+     * @return number of combinations
+     * @throws ArithmeticException if the number of combinations cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
     public abstract long count();
 
+    /**
+     * Returns the number of combinations as {@code BigInteger}.
+     *
+     * @return number of combinations
+     */
+    public abstract BigInteger countExact();
+
+    /**
+     * Returns position of the combination in lexicographic order (the order in which combinations are enumerated).
+     *
+     * @param combination index array of the combination
+     * @return position of the combination ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code combination} is not one of enumerated combinations
+     * @throws ArithmeticException      if the position cannot be represented as long (use
+     *                                  {@link #rankExact(int[])} instead)
+     */
+    public abstract long rank(int[] combination);
+
+    /**
+     * Returns index array of the combination at given position of lexicographic order (the order in which
+     * combinations are enumerated).
+     *
+     * @param rank position of the combination
+     * @return index array of the combination
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public int[] unrank(long rank) {
+        return unrank(rank, new int[k]);
+    }
+
+    /**
+     * Stores index array of the combination at given position of lexicographic order in {@code combination}.
+     *
+     * @param rank        position of the combination
+     * @param combination array of length {@code k} where index array of the combination is stored
+     * @return {@code combination}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()} or length of
+     *                                  {@code combination} is not equal to {@code k}
+     */
+    public abstract int[] unrank(long rank, int[] combination);
+
+    /**
+     * Returns position of the combination in lexicographic order as {@code BigInteger}.
+     *
+     * @param combination index array of the combination
+     * @return position of the combination ({@code 0 <= rank < countExact()})
+     * @throws IllegalArgumentException if {@code combination} is not one of enumerated combinations
+     */
+    public abstract BigInteger rankExact(int[] combination);
+
+    /**
+     * Returns index array of the combination at given position of lexicographic order.
+     *
+     * @param rank position of the combination
+     * @return index array of the combination
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()}
+     */
+    public int[] unrank(BigInteger rank) {
+        return unrank(rank, new int[k]);
+    }
+
+    /**
+     * Stores index array of the combination at given position of lexicographic order in {@code combination}.
+     *
+     * @param rank        position of the combination
+     * @param combination array of length {@code k} where index array of the combination is stored
+     * @return {@code combination}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()} or length of
+     *                                  {@code combination} is not equal to {@code k}
+     */
+    public abstract int[] unrank(BigInteger rank, int[] combination);
+
     /**
      * Returns a sequential {@code Stream} with all combinations of this as its source.
      *
@@ -78,19 +165,164 @@ public abstract class Combinations<T> implements Iterable<T> {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * Returns a possibly parallel {@code Stream} with all combinations of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all combinations
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over combinations of type {@code T}.
+     *
+     * <p>
+     * The {@code Spliterator} knows its exact size and splits the range of ranks in half, so that parallel streams
+     * scale with the number of available cores. If the number of combinations cannot be represented as long,
+     * the {@code Spliterator} falls back to sequential traversal of {@link #iterator()}.
+     * </p>
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        if (countExact().bitLength() >= Long.SIZE) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return new RankSpliterator<>(count(), k, this::unrank, this::advance, combinationsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each combination (in lexicographic order), until all combinations have been
+     * processed or the action returns {@code false}.
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)} this method neither applies {@code combinationsVisitor} nor allocates anything per
+     * combination: the action is given the live index array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each combination
+     * @return {@code true} if all combinations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = firstIndex();
+        do {
+            if (!action.accept(index)) {
+                return false;
+            }
+        } while (advance(index) >= 0);
+        return true;
+    }
+
+    /**
+     * Performs given action for index array of each combination (in lexicographic order) accepted by given prefix filter,
+     * until all combinations have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * All combinations starting with a prefix rejected by the filter are skipped without being generated (see
+     * {@link PrefixEnumeration#forEachIndices(int[], int, PrefixEnumeration.Successor, PrefixEnumeration.Skip,
+     * PrefixPredicate, IntArrayConsumer)}).
+     * </p>
+     *
+     * @param filter filter of prefixes
+     * @param action action to be performed for index array of each accepted combination
+     * @return {@code true} if all combinations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(PrefixPredicate filter, IntArrayConsumer action) {
+        if (filter == null) {
+            throw new IllegalArgumentException("filter cannot be null");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        return empty() || PrefixEnumeration.forEachIndices(firstIndex(), k, this::advance, this::skip, filter, action);
+    }
+
+    /**
+     * Folds index arrays of all combinations (in lexicographic order) with given visitor, until all combinations have been
+     * processed or the visitor returns {@code false}.
+     *
+     * <p>
+     * The visitor is pushed and popped only for positions from the first changed one onward (see
+     * {@link PrefixEnumeration#foldIndices(int[], int, PrefixEnumeration.Successor, PrefixVisitor)}).
+     * </p>
+     *
+     * @param visitor visitor to be given indexes of each combination
+     * @return {@code true} if all combinations have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean foldIndices(PrefixVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        return empty() || PrefixEnumeration.foldIndices(firstIndex(), k, this::advance, visitor);
+    }
+
     /**
      * Returns an iterator over combinations of type {@code T}.
      *
      * @return an {@code Iterator}
      */
     @Override
-    public Iterator<T> iterator() {
-        return empty() ? emptyIterator() : newIterator();
+    public TupleIterator<T> iterator() {
+        if (empty()) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(firstIndex(), k, index -> advance(index) >= 0, combinationsVisitor);
     }
 
     protected boolean empty() {
         return n == 0 || k == 0;
     }
 
-    protected abstract Iterator<T> newIterator();
+    protected void checkRank(long rank) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    protected void checkRank(BigInteger rank) {
+        if (rank == null || rank.signum() < 0 || rank.compareTo(countExact()) >= 0) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    protected void checkLength(int[] combination) {
+        if (combination == null || combination.length != k) {
+            throw new IllegalArgumentException("combination must be an array of length k");
+        }
+    }
+
+    /**
+     * Returns index array of the first combination in lexicographic order.
+     *
+     * @return index array of the first combination
+     */
+    protected abstract int[] firstIndex();
+
+    /**
+     * Advances index array (in place) to the next combination in lexicographic order.
+     *
+     * @param index index array of the combination
+     * @return position of the first changed index, or {@code -1} if it was the last combination
+     */
+    protected abstract int advance(int[] index);
+
+    /**
+     * Advances index array (in place) past all combinations sharing its prefix of length {@code depth + 1}, to the next
+     * combination in lexicographic order. Positions after {@code depth} are expected to be in their lexicographically
+     * smallest arrangement (as left by {@link #advance(int[])}).
+     *
+     * @param index index array of the combination
+     * @param depth last position of the prefix to be skipped
+     * @return position of the first changed index, or {@code -1} if there are no more combinations
+     */
+    protected abstract int skip(int[] index, int depth);
 }
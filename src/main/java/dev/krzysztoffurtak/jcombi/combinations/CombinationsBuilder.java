@@ -22,20 +22,58 @@
 package dev.krzysztoffurtak.jcombi.combinations;
 
 import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.TupleView;
 
 import java.util.List;
 
 public interface CombinationsBuilder<T> extends InputSetBuilder<T, CombinationsBuilder.Builder<T>> {
     interface Builder<T> {
         CombinationsWithoutRepetition<List<T>> choose(int k);
+
+        /**
+         * Returns combinations of size {@code k} in which {@code i}-th element of the input set occurs at most
+         * {@code multiplicities[i]} times.
+         *
+         * @param k              size of combinations
+         * @param multiplicities maximal numbers of occurrences of elements (array of length {@code n})
+         * @return combinations with bounded repetition
+         */
+        CombinationsWithBoundedRepetition<List<T>> choose(int k, int[] multiplicities);
+    }
+
+    interface ViewBuilder<T> {
+        CombinationsWithoutRepetition<TupleView<T>> choose(int k);
     }
 
     static CombinationsWithoutRepetition<int[]> build(int n, int k) {
         return new CombinationsWithoutRepetition<>(n, k, InputSetBuilder.sequenceFromIndexes());
     }
 
+    static CombinationsWithBoundedRepetition<int[]> build(int[] multiplicities, int k) {
+        return new CombinationsWithBoundedRepetition<>(multiplicities, k, InputSetBuilder.sequenceFromIndexes());
+    }
+
     static <T> CombinationsBuilder<T> builder() {
-        return inputSet -> (Builder<T>) k -> new CombinationsWithoutRepetition<>(
-                inputSet.size(), k, InputSetBuilder.sequenceFromInputSet(inputSet));
+        return inputSet -> new Builder<>() {
+            @Override
+            public CombinationsWithoutRepetition<List<T>> choose(int k) {
+                return new CombinationsWithoutRepetition<>(
+                        inputSet.size(), k, InputSetBuilder.sequenceFromInputSet(inputSet));
+            }
+
+            @Override
+            public CombinationsWithBoundedRepetition<List<T>> choose(int k, int[] multiplicities) {
+                if (multiplicities == null || multiplicities.length != inputSet.size()) {
+                    throw new IllegalArgumentException("multiplicities must be an array of length n");
+                }
+                return new CombinationsWithBoundedRepetition<>(
+                        multiplicities, k, InputSetBuilder.sequenceFromInputSet(inputSet));
+            }
+        };
+    }
+
+    static <T> InputSetBuilder<T, ViewBuilder<T>> viewBuilder() {
+        return inputSet -> (ViewBuilder<T>) k -> new CombinationsWithoutRepetition<>(
+                inputSet.size(), k, InputSetBuilder.sequenceViewFromInputSet(inputSet));
     }
 }
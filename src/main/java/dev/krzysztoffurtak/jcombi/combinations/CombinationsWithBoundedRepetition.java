@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Combinations of a multiset, in which {@code i}-th element can be selected at most {@code multiplicities[i]} times.
+ *
+ * <p>
+ * Each combination is a non-decreasing index array of length {@code k}, and only valid combinations are generated
+ * (no combination exceeding a multiplicity is ever visited). Combinations are enumerated in lexicographic order and
+ * counted exactly by dynamic programming over suffixes of the multiset.
+ * </p>
+ *
+ * @param <T> type of combinations
+ */
+public class CombinationsWithBoundedRepetition<T> extends Combinations<T> {
+    private final int[] multiplicities;
+    // capacity[i] is the number of elements i..n-1 available in total, next[i] is the first element >= i that can be
+    // selected at all
+    private final long[] capacity;
+    private final int[] next;
+    // completions[i][j] is the number of combinations of size j of elements i..n-1 (computed on first use, as only
+    // counting and ranking need it)
+    private BigInteger[][] completions;
+    private long[][] completionsSaturated;
+
+    public CombinationsWithBoundedRepetition(int[] multiplicities, int k, Function<int[], T> combinationsVisitor) {
+        super(multiplicities == null ? 0 : multiplicities.length, k, combinationsVisitor);
+        if (multiplicities == null) {
+            throw new IllegalArgumentException("multiplicities cannot be null");
+        }
+
+        this.multiplicities = multiplicities.clone();
+        this.capacity = new long[n + 1];
+        this.next = new int[n + 1];
+        next[n] = n;
+        for (int i = n - 1; i >= 0; i--) {
+            if (multiplicities[i] < 0) {
+                throw new IllegalArgumentException("multiplicities must be greater or equal to zero");
+            }
+            capacity[i] = capacity[i + 1] + multiplicities[i];
+            next[i] = multiplicities[i] > 0 ? i : next[i + 1];
+        }
+    }
+
+    /**
+     * Returns maximal numbers of occurrences of elements in a combination.
+     *
+     * @return multiplicities of elements
+     */
+    public int[] multiplicities() {
+        return multiplicities.clone();
+    }
+
+    @Override
+    public long count() {
+        if (empty()) {
+            return 0;
+        }
+        final long count = completionsSaturated()[0][k];
+        if (count == Long.MAX_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        return count;
+    }
+
+    @Override
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : completions()[0][k];
+    }
+
+    @Override
+    public long rank(int[] combination) {
+        final int[] counts = toCounts(combination);
+        final long[][] completionsSaturated = completionsSaturated();
+        // every completion count on the way is at most count(), so ranks are exact once it fits in long
+        if (completionsSaturated[0][k] == Long.MAX_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        long rank = 0;
+        int remaining = k;
+        for (int i = 0; i < n; i++) {
+            for (int v = Math.min(multiplicities[i], remaining); v > counts[i]; v--) {
+                rank += completionsSaturated[i + 1][remaining - v];
+            }
+            remaining -= counts[i];
+        }
+        return rank;
+    }
+
+    @Override
+    public int[] unrank(long rank, int[] combination) {
+        checkRank(rank);
+        checkLength(combination);
+
+        final long[][] completionsSaturated = completionsSaturated();
+        int remaining = k;
+        for (int i = 0, position = 0; i < n; i++) {
+            int v = Math.min(multiplicities[i], remaining);
+            while (rank >= completionsSaturated[i + 1][remaining - v]) {
+                rank -= completionsSaturated[i + 1][remaining - v];
+                v--;
+            }
+            Arrays.fill(combination, position, position + v, i);
+            position += v;
+            remaining -= v;
+        }
+        return combination;
+    }
+
+    @Override
+    public BigInteger rankExact(int[] combination) {
+        final int[] counts = toCounts(combination);
+        final BigInteger[][] completions = completions();
+        BigInteger rank = BigInteger.ZERO;
+        int remaining = k;
+        for (int i = 0; i < n; i++) {
+            for (int v = Math.min(multiplicities[i], remaining); v > counts[i]; v--) {
+                rank = rank.add(completions[i + 1][remaining - v]);
+            }
+            remaining -= counts[i];
+        }
+        return rank;
+    }
+
+    @Override
+    public int[] unrank(BigInteger rank, int[] combination) {
+        checkRank(rank);
+        checkLength(combination);
+
+        final BigInteger[][] completions = completions();
+        int remaining = k;
+        for (int i = 0, position = 0; i < n; i++) {
+            int v = Math.min(multiplicities[i], remaining);
+            while (rank.compareTo(completions[i + 1][remaining - v]) >= 0) {
+                rank = rank.subtract(completions[i + 1][remaining - v]);
+                v--;
+            }
+            Arrays.fill(combination, position, position + v, i);
+            position += v;
+            remaining -= v;
+        }
+        return combination;
+    }
+
+    @Override
+    protected boolean empty() {
+        return super.empty() || capacity[0] < k;
+    }
+
+    @Override
+    protected int[] firstIndex() {
+        final int[] index = new int[k];
+        fill(index, 0, next[0]);
+        return index;
+    }
+
+    @Override
+    protected int advance(int[] index) {
+        return skip(index, k - 1);
+    }
+
+    @Override
+    protected int skip(int[] index, int depth) {
+        // The rightmost position (not after depth) whose element can be replaced with the next greater one, with all
+        // positions after it still fillable, is the first one to change
+        for (int i = depth; i >= 0; i--) {
+            final int element = next[index[i] + 1];
+            if (element < n && capacity[element] >= k - i) {
+                fill(index, i, element);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Fills positions from..k-1 with the smallest elements not less than given one, each up to its multiplicity
+    private void fill(int[] index, int from, int element) {
+        int used = 0;
+        for (int i = from; i < k; i++) {
+            if (used == multiplicities[element]) {
+                element = next[element + 1];
+                used = 0;
+            }
+            index[i] = element;
+            used++;
+        }
+    }
+
+    private synchronized BigInteger[][] completions() {
+        if (completions == null) {
+            computeCompletions();
+        }
+        return completions;
+    }
+
+    private synchronized long[][] completionsSaturated() {
+        if (completionsSaturated == null) {
+            computeCompletions();
+        }
+        return completionsSaturated;
+    }
+
+    private void computeCompletions() {
+        final int width = (int) Math.min(k, capacity[0]) + 1;
+        completions = new BigInteger[n + 1][width];
+        completionsSaturated = new long[n + 1][width];
+        Arrays.fill(completions[n], BigInteger.ZERO);
+        completions[n][0] = BigInteger.ONE;
+        for (int i = n - 1; i >= 0; i--) {
+            BigInteger window = BigInteger.ZERO;
+            for (int j = 0; j < width; j++) {
+                window = window.add(completions[i + 1][j]);
+                if (j > multiplicities[i]) {
+                    window = window.subtract(completions[i + 1][j - multiplicities[i] - 1]);
+                }
+                completions[i][j] = window;
+            }
+        }
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j < width; j++) {
+                completionsSaturated[i][j] = completions[i][j].bitLength() < Long.SIZE
+                        ? completions[i][j].longValue() : Long.MAX_VALUE;
+            }
+        }
+    }
+
+    private int[] toCounts(int[] combination) {
+        checkLength(combination);
+        final int[] counts = new int[n];
+        for (int i = 0; i < k; i++) {
+            if (combination[i] < 0 || combination[i] >= n || i > 0 && combination[i - 1] > combination[i]
+                    || ++counts[combination[i]] > multiplicities[combination[i]]) {
+                throw new IllegalArgumentException(
+                        "combination must be a non-decreasing sequence of indexes less than n, "
+                                + "each occurring at most multiplicities[index] times");
+            }
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        return counts;
+    }
+}
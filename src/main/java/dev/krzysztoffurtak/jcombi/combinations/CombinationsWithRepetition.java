@@ -23,9 +23,8 @@ package dev.krzysztoffurtak.jcombi.combinations;
 
 import dev.krzysztoffurtak.jcombi.Combinatorics;
 
-import java.util.Iterator;
+import java.math.BigInteger;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 public class CombinationsWithRepetition<T> extends Combinations<T> {
 
@@ -43,43 +42,95 @@ public class CombinationsWithRepetition<T> extends Combinations<T> {
     }
 
     @Override
-    protected Iterator<T> newIterator() {
-        return new Iter();
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : Combinatorics.binomialExact(n + k - 1, k);
     }
 
-    private class Iter implements Iterator<T> {
-        private final int[] index = IntStream.range(0, k).map(i -> 0).toArray();
-        private boolean nextAvailable = true;
+    @Override
+    public long rank(int[] combination) {
+        return CombinationsWithoutRepetition.rank(n + k - 1, k, toIndexWithoutRepetition(combination));
+    }
+
+    @Override
+    public int[] unrank(long rank, int[] combination) {
+        checkRank(rank);
+        checkLength(combination);
+        CombinationsWithoutRepetition.unrank(n + k - 1, k, rank, combination);
+        return toCombination(combination);
+    }
+
+    @Override
+    public BigInteger rankExact(int[] combination) {
+        return CombinationsWithoutRepetition.rankExact(n + k - 1, k, toIndexWithoutRepetition(combination));
+    }
+
+    @Override
+    public int[] unrank(BigInteger rank, int[] combination) {
+        checkRank(rank);
+        checkLength(combination);
+        CombinationsWithoutRepetition.unrank(n + k - 1, k, rank, combination);
+        return toCombination(combination);
+    }
+
+    @Override
+    protected int[] firstIndex() {
+        return new int[k];
+    }
+
+    @Override
+    protected int advance(int[] index) {
+        int i = k - 1;
 
-        @Override
-        public boolean hasNext() {
-            return nextAvailable;
+        while (i >= 0 && indexAt(index, i) == indexAt(index, i + 1)) {
+            i--;
         }
 
-        @Override
-        public T next() {
-            final T combination = combinationsVisitor.apply(index);
-            int i = k - 1;
+        if (i < 0) {
+            return -1;
+        }
 
-            while (i >= 0 && indexAt(i) == indexAt(i + 1)) {
-                i--;
-            }
+        final int changed = i;
+        index[i]++;
 
-            if (i >= 0) {
-                index[i]++;
+        for (; i < k - 1; i++) {
+            index[i + 1] = index[i];
+        }
 
-                for (; i < k - 1; i++) {
-                    index[i + 1] = index[i];
-                }
-            } else {
-                nextAvailable = false;
-            }
+        return changed;
+    }
 
-            return combination;
+    @Override
+    protected int skip(int[] index, int depth) {
+        for (int i = depth + 1; i < k; i++) {
+            index[i] = n - 1;
         }
+        return advance(index);
+    }
 
-        private int indexAt(int i) {
-            return i < k ? index[i] : n - 1;
+    private int[] toIndexWithoutRepetition(int[] combination) {
+        checkLength(combination);
+        final int[] index = new int[k];
+        for (int i = 0; i < k; i++) {
+            if (combination[i] < 0 || combination[i] >= n || i > 0 && combination[i - 1] > combination[i]) {
+                throw new IllegalArgumentException(
+                        "combination must be a non-decreasing sequence of indexes less than n");
+            }
+            index[i] = combination[i] + i;
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
         }
+        return index;
+    }
+
+    private int[] toCombination(int[] index) {
+        for (int i = 0; i < k; i++) {
+            index[i] -= i;
+        }
+        return index;
+    }
+
+    private int indexAt(int[] index, int i) {
+        return i < k ? index[i] : n - 1;
     }
 }
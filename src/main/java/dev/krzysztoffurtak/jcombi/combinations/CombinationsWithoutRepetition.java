@@ -22,8 +22,10 @@
 package dev.krzysztoffurtak.jcombi.combinations;
 
 import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.SwapVisitor;
 
-import java.util.Iterator;
+import java.math.BigInteger;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
@@ -40,50 +42,283 @@ public class CombinationsWithoutRepetition<T> extends Combinations<T> {
         return new CombinationsWithRepetition<>(n, k, combinationsVisitor);
     }
 
+    /**
+     * Returns combinations whose total weight lies within {@code [lo, hi]}, where {@code weights[i]} is the weight of
+     * {@code i}-th element of the input set. Weights have to be sorted in non-decreasing order.
+     *
+     * @param weights weights of elements (array of length {@code n})
+     * @param lo      minimal total weight (inclusive)
+     * @param hi      maximal total weight (inclusive)
+     * @return combinations within bounds
+     */
+    public WeightedCombinations<T> withWeights(long[] weights, long lo, long hi) {
+        if (weights == null || weights.length != n) {
+            throw new IllegalArgumentException("weights must be an array of length n");
+        }
+        return new WeightedCombinations<>(k, weights, lo, hi, combinationsVisitor);
+    }
+
+    /**
+     * Returns combinations in which no two elements conflict with each other, where {@code conflicts[i]} is the
+     * adjacency bitset of {@code i}-th element of the input set in the conflict graph.
+     *
+     * @param conflicts adjacency bitsets of elements (array of length {@code n} of {@code (n + 63) / 64} words each)
+     * @return conflict-free combinations
+     */
+    public ConflictFreeCombinations<T> withConflicts(long[][] conflicts) {
+        if (conflicts == null || conflicts.length != n) {
+            throw new IllegalArgumentException("conflicts must be an array of length n");
+        }
+        return new ConflictFreeCombinations<>(k, conflicts, combinationsVisitor);
+    }
+
     @Override
     public long count() {
         return empty() ? 0 : Combinatorics.binomial(n, k);
     }
 
     @Override
-    protected Iterator<T> newIterator() {
-        return new Iter();
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : Combinatorics.binomialExact(n, k);
+    }
+
+    @Override
+    public long rank(int[] combination) {
+        checkCombination(combination);
+        return rank(n, k, combination);
+    }
+
+    @Override
+    public int[] unrank(long rank, int[] combination) {
+        checkRank(rank);
+        checkLength(combination);
+        unrank(n, k, rank, combination);
+        return combination;
+    }
+
+    @Override
+    public BigInteger rankExact(int[] combination) {
+        checkCombination(combination);
+        return rankExact(n, k, combination);
+    }
+
+    @Override
+    public int[] unrank(BigInteger rank, int[] combination) {
+        checkRank(rank);
+        checkLength(combination);
+        unrank(n, k, rank, combination);
+        return combination;
+    }
+
+    /**
+     * Performs given action for index array of each combination in revolving-door order, until all combinations have
+     * been processed or the action returns {@code false}.
+     *
+     * <p>
+     * In revolving-door order every two consecutive combinations differ by exactly one element: one index leaves the
+     * combination and another one enters it. Like {@link #forEachIndices(IntArrayConsumer)} the action is given the
+     * live index array (kept in increasing order), which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each combination
+     * @return {@code true} if all combinations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndicesInRevolvingDoorOrder(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        return revolvingDoor(action, (out, in) -> true);
+    }
+
+    /**
+     * Enumerates combinations in revolving-door order and notifies given visitor of each step as a pair of indexes
+     * {@code onSwap(out, in)}: {@code out} leaves the combination and {@code in} enters it.
+     *
+     * <p>
+     * The enumeration starts with combination {@code {0, 1, ..., k - 1}} (which is not reported) and the visitor is
+     * notified {@code count() - 1} times, so a stateful evaluator can be updated in constant time per combination
+     * instead of being recomputed for all {@code k} elements.
+     * </p>
+     *
+     * @param visitor visitor to be notified of each step
+     * @return {@code true} if all combinations have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean forEachSwap(SwapVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        return revolvingDoor(index -> true, visitor);
+    }
+
+    @Override
+    protected int[] firstIndex() {
+        return IntStream.range(0, k).toArray();
+    }
+
+    @Override
+    protected int advance(int[] index) {
+        int i = k - 1;
+
+        while (i >= 0 && indexAt(index, i) + 1 == indexAt(index, i + 1)) {
+            i--;
+        }
+
+        if (i < 0) {
+            return -1;
+        }
+
+        final int changed = i;
+        index[i]++;
+
+        for (; i < k - 1; i++) {
+            index[i + 1] = index[i] + 1;
+        }
+
+        return changed;
     }
 
-    private class Iter implements Iterator<T> {
-        private final int[] index = IntStream.range(0, k).toArray();
+    @Override
+    protected int skip(int[] index, int depth) {
+        for (int i = depth + 1; i < k; i++) {
+            index[i] = n - k + i;
+        }
+        return advance(index);
+    }
 
-        private boolean nextAvailable = true;
+    static long rank(int n, int k, int[] index) {
+        long rank = Combinatorics.binomial(n, k) - 1;
+        for (int i = 0; i < k; i++) {
+            final int remaining = n - 1 - index[i];
+            if (remaining >= k - i) {
+                rank -= Combinatorics.binomial(remaining, k - i);
+            }
+        }
+        return rank;
+    }
 
-        @Override
-        public boolean hasNext() {
-            return nextAvailable;
+    static void unrank(int n, int k, long rank, int[] index) {
+        int element = 0;
+        for (int i = 0; i < k; i++) {
+            long count = Combinatorics.binomial(n - element - 1, k - i - 1);
+            while (rank >= count) {
+                rank -= count;
+                element++;
+                count = Combinatorics.binomial(n - element - 1, k - i - 1);
+            }
+            index[i] = element++;
         }
+    }
 
-        @Override
-        public T next() {
-            final T combination = combinationsVisitor.apply(index);
-            int i = k - 1;
+    // Both methods below walk through the same lattice of binomial coefficients as their long counterparts, but
+    // update the coefficient incrementally instead of computing it from scratch at every step.
+    static BigInteger rankExact(int n, int k, int[] index) {
+        BigInteger rank = BigInteger.ZERO;
+        BigInteger count = Combinatorics.binomialExact(n - 1, k - 1);
+        int m = n - 1;
+        int r = k - 1;
+        int element = 0;
+        for (int i = 0; i < k; i++) {
+            while (element < index[i]) {
+                rank = rank.add(count);
+                count = count.multiply(BigInteger.valueOf(m - r)).divide(BigInteger.valueOf(m));
+                m--;
+                element++;
+            }
+            if (r > 0) {
+                count = count.multiply(BigInteger.valueOf(r)).divide(BigInteger.valueOf(m));
+                m--;
+                r--;
+                element++;
+            }
+        }
+        return rank;
+    }
 
-            while (i >= 0 && indexAt(i) + 1 == indexAt(i + 1)) {
-                i--;
+    static void unrank(int n, int k, BigInteger rank, int[] index) {
+        BigInteger count = Combinatorics.binomialExact(n - 1, k - 1);
+        int m = n - 1;
+        int r = k - 1;
+        int element = 0;
+        for (int i = 0; i < k; i++) {
+            while (rank.compareTo(count) >= 0) {
+                rank = rank.subtract(count);
+                count = count.multiply(BigInteger.valueOf(m - r)).divide(BigInteger.valueOf(m));
+                m--;
+                element++;
+            }
+            index[i] = element;
+            if (r > 0) {
+                count = count.multiply(BigInteger.valueOf(r)).divide(BigInteger.valueOf(m));
+                m--;
+                r--;
+                element++;
             }
+        }
+    }
 
-            if (i >= 0) {
-                index[i]++;
+    // Algorithm R (revolving-door combinations) from "The Art of Computer Programming", Vol. 4A, 7.2.1.3
+    private boolean revolvingDoor(IntArrayConsumer action, SwapVisitor visitor) {
+        if (empty()) {
+            return true;
+        }
 
-                for (; i < k - 1; i++) {
-                    index[i + 1] = index[i] + 1;
-                }
+        final int[] index = firstIndex();
+        final boolean odd = k % 2 == 1;
+        while (action.accept(index)) {
+            final int out;
+            final int in;
+            if (odd && index[0] + 1 < indexAt(index, 1)) {
+                out = index[0];
+                in = ++index[0];
+            } else if (!odd && index[0] > 0) {
+                out = index[0];
+                in = --index[0];
             } else {
-                nextAvailable = false;
+                int i = 1;
+                boolean decrease = odd;
+                while (true) {
+                    if (i >= k) {
+                        return true;
+                    }
+                    if (decrease && index[i] > i) {
+                        out = index[i];
+                        in = i - 1;
+                        index[i] = index[i - 1];
+                        index[i - 1] = in;
+                        break;
+                    }
+                    if (!decrease && index[i] + 1 < indexAt(index, i + 1)) {
+                        out = index[i - 1];
+                        in = index[i] + 1;
+                        index[i - 1] = index[i];
+                        index[i] = in;
+                        break;
+                    }
+                    i++;
+                    decrease = !decrease;
+                }
             }
 
-            return combination;
+            if (!visitor.onSwap(out, in)) {
+                return false;
+            }
         }
+        return false;
+    }
 
-        private int indexAt(int i) {
-            return i < k ? index[i] : n;
+    private void checkCombination(int[] combination) {
+        checkLength(combination);
+        for (int i = 0; i < k; i++) {
+            if (combination[i] < 0 || combination[i] >= n || i > 0 && combination[i - 1] >= combination[i]) {
+                throw new IllegalArgumentException("combination must be an increasing sequence of indexes less than n");
+            }
         }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    private int indexAt(int[] index, int i) {
+        return i < k ? index[i] : n;
     }
 }
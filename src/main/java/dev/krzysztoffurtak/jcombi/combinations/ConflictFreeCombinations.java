@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.FirstElementSpliterator;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combinations without repetition of {@code k} out of {@code n} elements, in which no two elements conflict with each
+ * other (independent sets of size {@code k} of the conflict graph).
+ *
+ * <p>
+ * Conflicts are given as adjacency bitsets: bit {@code j} of {@code conflicts[i]} (bit {@code j % 64} of word
+ * {@code j / 64}) is set if elements {@code i} and {@code j} conflict. The graph is treated as undirected. For each
+ * depth of the search a bitset of elements compatible with the prefix is kept, so only compatible elements are ever
+ * tried and a prefix is abandoned as soon as too few of them remain.
+ * </p>
+ *
+ * @param <T> type of combinations
+ */
+public class ConflictFreeCombinations<T> implements Iterable<T> {
+    private final int n;
+    private final int k;
+    private final int words;
+    private final long[][] conflicts;
+    private final Function<int[], T> combinationsVisitor;
+
+    public ConflictFreeCombinations(int k, long[][] conflicts, Function<int[], T> combinationsVisitor) {
+        if (conflicts == null) {
+            throw new IllegalArgumentException("conflicts cannot be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (k > conflicts.length) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+        if (combinationsVisitor == null) {
+            throw new IllegalArgumentException("combinationsVisitor cannot be null");
+        }
+
+        this.n = conflicts.length;
+        this.k = k;
+        this.words = (n + Long.SIZE - 1) / Long.SIZE;
+        this.conflicts = new long[n][];
+        for (int i = 0; i < n; i++) {
+            if (conflicts[i] == null || conflicts[i].length != words) {
+                throw new IllegalArgumentException("conflicts must be bitsets of (n + 63) / 64 words");
+            }
+            this.conflicts[i] = conflicts[i].clone();
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (isSet(this.conflicts[i], j)) {
+                    this.conflicts[j][i / Long.SIZE] |= 1L << i;
+                }
+            }
+        }
+        this.combinationsVisitor = combinationsVisitor;
+    }
+
+    /**
+     * Returns the size of the input set from which combinations are selected.
+     *
+     * @return size of the input set
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the size of the combinations to be enumerated.
+     *
+     * @return size of the combination
+     */
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with all conflict-free combinations as its source.
+     *
+     * @return sequential {@code Stream} over combinations
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with all conflict-free combinations as its source.
+     *
+     * @return possibly parallel {@code Stream} over combinations
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over conflict-free combinations, which splits the range of first elements of
+     * combinations.
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FirstElementSpliterator<>(0, empty() ? 0 : n, Search::new, combinationsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each conflict-free combination (in lexicographic order), until all
+     * combinations have been processed or the action returns {@code false}.
+     *
+     * @param action action to be performed for index array of each combination
+     * @return {@code true} if all combinations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        final Search search = new Search();
+        if (empty() || !search.start(0, n)) {
+            return true;
+        }
+        do {
+            if (!action.accept(search.index)) {
+                return false;
+            }
+        } while (search.advance());
+        return true;
+    }
+
+    /**
+     * Returns an iterator over conflict-free combinations.
+     *
+     * @return an {@code Iterator}
+     */
+    @Override
+    public TupleIterator<T> iterator() {
+        final Search search = new Search();
+        if (empty() || !search.start(0, n)) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(search.index, k, index -> search.advance(), combinationsVisitor);
+    }
+
+    private boolean empty() {
+        return n == 0 || k == 0;
+    }
+
+    private static boolean isSet(long[] bitset, int i) {
+        return (bitset[i / Long.SIZE] & 1L << i) != 0;
+    }
+
+    private final class Search implements FirstElementSpliterator.Search {
+        private final int[] index = new int[k];
+        private final long[][] candidates = new long[k + 1][words];
+        private int to;
+
+        Search() {
+            for (int i = 0; i < n; i++) {
+                candidates[0][i / Long.SIZE] |= 1L << i;
+            }
+        }
+
+        @Override
+        public boolean start(int from, int to) {
+            this.to = to;
+            return search(0, from);
+        }
+
+        @Override
+        public int[] index() {
+            return index;
+        }
+
+        @Override
+        public boolean advance() {
+            return search(k - 1, index[k - 1] + 1);
+        }
+
+        private boolean search(int depth, int from) {
+            int i = depth;
+            int candidate = from;
+            while (i < k) {
+                final int element = firstCompatible(i, candidate);
+                if (element >= 0) {
+                    index[i] = element;
+                    candidate = element + 1;
+                    i++;
+                } else if (i > 0) {
+                    i--;
+                    candidate = index[i] + 1;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Finds the first element compatible with the prefix of given length, leaving enough compatible elements
+        // after it to complete the combination, and fills candidates of the next depth.
+        private int firstCompatible(int depth, int from) {
+            final long[] current = candidates[depth];
+            final long[] next = candidates[depth + 1];
+            final int remaining = k - depth - 1;
+            final int end = depth == 0 ? Math.min(to, n) : n;
+            for (int element = nextSetBit(current, from); element >= 0 && element < end;
+                 element = nextSetBit(current, element + 1)) {
+                final long[] conflicting = conflicts[element];
+                final int word = element / Long.SIZE;
+                int count = 0;
+                for (int w = 0; w < words; w++) {
+                    final long bits = w < word ? 0 : w > word ? current[w] : current[w] & -2L << element;
+                    next[w] = bits & ~conflicting[w];
+                    count += Long.bitCount(next[w]);
+                }
+                if (count >= remaining) {
+                    return element;
+                }
+            }
+            return -1;
+        }
+
+        private int nextSetBit(long[] bitset, int from) {
+            int word = from / Long.SIZE;
+            if (word >= words) {
+                return -1;
+            }
+            long bits = bitset[word] & -1L << from;
+            while (bits == 0) {
+                if (++word >= words) {
+                    return -1;
+                }
+                bits = bitset[word];
+            }
+            return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        }
+    }
+}
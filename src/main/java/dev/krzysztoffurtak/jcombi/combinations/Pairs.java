@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.BiIntConsumer;
+import dev.krzysztoffurtak.jcombi.BiIntPredicate;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All pairs {@code (i, j)} with {@code 0 <= i < j < n}, i.e. combinations without repetition of {@code n} choose 2,
+ * given to primitive callbacks without any allocation per pair.
+ *
+ * <p>
+ * Pairs are traversed in square tiles of {@code tileSize x tileSize} pairs: tiles are visited row by row
+ * ({@code i / tileSize} ascending, then {@code j / tileSize} ascending) and within a tile {@code i} and then {@code j}
+ * ascend. Records referenced by a tile (two blocks of {@code tileSize} elements) are thus reused while they are still
+ * in cache. Parallel traversal runs tiles as tasks of a {@link ForkJoinPool}.
+ * </p>
+ */
+public class Pairs {
+    private static final int DEFAULT_TILE_SIZE = 256;
+
+    private final int n;
+    private final int tileSize;
+    private final int blocks;
+
+    public Pairs(int n) {
+        this(n, DEFAULT_TILE_SIZE);
+    }
+
+    public Pairs(int n, int tileSize) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater of equal to zero");
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be greater than zero");
+        }
+
+        this.n = n;
+        this.tileSize = tileSize;
+        this.blocks = (int) (((long) n + tileSize - 1) / tileSize);
+    }
+
+    /**
+     * Returns the size of the input set from which pairs are selected.
+     *
+     * @return size of the input set
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the size of the side of a tile.
+     *
+     * @return size of the side of a tile
+     */
+    public int tileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Returns pairs of the same input set traversed in tiles of given size.
+     *
+     * @param tileSize size of the side of a tile
+     * @return pairs traversed in tiles of given size
+     */
+    public Pairs withTileSize(int tileSize) {
+        return new Pairs(n, tileSize);
+    }
+
+    public long count() {
+        return (long) n * (n - 1) / 2;
+    }
+
+    /**
+     * Performs given action for each pair (tile by tile).
+     *
+     * @param action action to be performed for each pair
+     */
+    public void forEach(BiIntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        for (int row = 0; row < blocks; row++) {
+            for (int column = row; column < blocks; column++) {
+                forEachInTile(row, column, action);
+            }
+        }
+    }
+
+    /**
+     * Performs given action for each pair (tile by tile), until all pairs have been processed or the action returns
+     * {@code false}.
+     *
+     * @param action action to be performed for each pair
+     * @return {@code true} if all pairs have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachWhile(BiIntPredicate action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        for (int row = 0; row < blocks; row++) {
+            for (int column = row; column < blocks; column++) {
+                if (!forEachInTileWhile(row, column, action)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Performs given action for each pair in parallel, using the common {@link ForkJoinPool}.
+     *
+     * @param action thread-safe action to be performed for each pair
+     */
+    public void parallelForEach(BiIntConsumer action) {
+        parallelForEach(ForkJoinPool.commonPool(), action);
+    }
+
+    /**
+     * Performs given action for each pair in parallel, using given {@link ForkJoinPool}. Each tile is processed by
+     * a single thread, in the same order as by {@link #forEach(BiIntConsumer)}.
+     *
+     * @param pool   pool running the tiles
+     * @param action thread-safe action to be performed for each pair
+     */
+    public void parallelForEach(ForkJoinPool pool, BiIntConsumer action) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        pool.invoke(new TileTask(0, (long) blocks * (blocks + 1) / 2, action));
+    }
+
+    private void forEachInTile(int row, int column, BiIntConsumer action) {
+        final int rowEnd = blockStart(row + 1);
+        final int columnStart = blockStart(column);
+        final int columnEnd = blockStart(column + 1);
+        for (int i = blockStart(row); i < rowEnd; i++) {
+            for (int j = Math.max(columnStart, i + 1); j < columnEnd; j++) {
+                action.accept(i, j);
+            }
+        }
+    }
+
+    private boolean forEachInTileWhile(int row, int column, BiIntPredicate action) {
+        final int rowEnd = blockStart(row + 1);
+        final int columnStart = blockStart(column);
+        final int columnEnd = blockStart(column + 1);
+        for (int i = blockStart(row); i < rowEnd; i++) {
+            for (int j = Math.max(columnStart, i + 1); j < columnEnd; j++) {
+                if (!action.test(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // First element of given block (n for blocks past the end), computed in long as blocks of large tiles may not fit
+    // in int
+    private int blockStart(int block) {
+        return (int) Math.min(n, (long) block * tileSize);
+    }
+
+    // Number of tiles in rows before given one
+    private long firstTile(int row) {
+        return (long) row * blocks - (long) row * (row - 1) / 2;
+    }
+
+    /**
+     * Processes tiles {@code [from, to)} numbered row by row, halving the range until a single tile is left.
+     */
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final transient BiIntConsumer action;
+
+        TileTask(long from, long to, BiIntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final long middle = (from + to) >>> 1;
+                invokeAll(new TileTask(from, middle, action), new TileTask(middle, to, action));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+
+            // The row is the greatest one with firstTile(row) <= from, i.e. the smaller root of the quadratic
+            // firstTile(row) = from rounded down, corrected for the precision of double
+            final double b = 2.0 * blocks + 1;
+            int row = (int) ((b - Math.sqrt(b * b - 8.0 * from)) / 2);
+            while (row > 0 && firstTile(row) > from) {
+                row--;
+            }
+            while (firstTile(row + 1) <= from) {
+                row++;
+            }
+            forEachInTile(row, row + (int) (from - firstTile(row)), action);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.ChangeVisitor;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+
+import java.util.stream.LongStream;
+
+/**
+ * All subsets of a set with {@code n <= 62} elements represented as bitmasks and enumerated in binary reflected Gray
+ * code order.
+ *
+ * <p>
+ * Bit {@code i} of a mask is set if {@code i}-th element of the input set belongs to the subset. Every two
+ * consecutive subsets differ by exactly one element, which is either added or removed. Mask at given rank is
+ * computed in constant time ({@code rank ^ (rank >>> 1)}), so enumeration can be split by rank at any point. Masks
+ * can be mapped onto the input set with {@link CombinationMasks#select(long, java.util.List)}.
+ * </p>
+ */
+public class PowerSet {
+    private static final int MAX_N = Long.SIZE - 2;
+
+    private final int n;
+
+    public PowerSet(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater of equal to zero");
+        }
+        if (n > MAX_N) {
+            throw new IllegalArgumentException("n must be less or equal to 62");
+        }
+
+        this.n = n;
+    }
+
+    /**
+     * Returns the size of the input set.
+     *
+     * @return size of the input set
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the number of subsets (including the empty one).
+     *
+     * @return number of subsets
+     */
+    public long count() {
+        return 1L << n;
+    }
+
+    /**
+     * Returns position of the subset in Gray code order.
+     *
+     * @param mask mask of the subset
+     * @return position of the subset ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code mask} has bits set at positions greater or equal to {@code n}
+     */
+    public long rank(long mask) {
+        if (mask >>> n != 0) {
+            throw new IllegalArgumentException("mask must have only bits less than n set");
+        }
+
+        long rank = mask;
+        for (int shift = 1; shift < n; shift <<= 1) {
+            rank ^= rank >>> shift;
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the subset at given position of Gray code order.
+     *
+     * @param rank position of the subset
+     * @return mask of the subset
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public long unrank(long rank) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        return rank ^ (rank >>> 1);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} with masks of all subsets (in Gray code order) as its source.
+     *
+     * @return sequential {@code LongStream} over all masks
+     */
+    public LongStream stream() {
+        return LongStream.range(0, count()).map(rank -> rank ^ (rank >>> 1));
+    }
+
+    /**
+     * Returns a possibly parallel {@code LongStream} with masks of all subsets (in Gray code order) as its source.
+     * The stream knows its exact size and is split by rank.
+     *
+     * @return possibly parallel {@code LongStream} over all masks
+     */
+    public LongStream parallelStream() {
+        return stream().parallel();
+    }
+
+    /**
+     * Enumerates subsets in Gray code order and notifies given visitor of each step as
+     * {@code onChange(element, oldValue, newValue)}: {@code 0 -> 1} when the element is added to the subset and
+     * {@code 1 -> 0} when it is removed.
+     *
+     * <p>
+     * The enumeration starts with the empty subset (which is not reported) and the visitor is notified
+     * {@code count() - 1} times.
+     * </p>
+     *
+     * @param visitor visitor to be notified of each step
+     * @return {@code true} if all subsets have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean forEachChange(ChangeVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+
+        long mask = 0;
+        for (long rank = 1; rank < count(); rank++) {
+            final int element = Long.numberOfTrailingZeros(rank);
+            mask ^= 1L << element;
+            final int newValue = (int) (mask >>> element) & 1;
+            if (!visitor.onChange(element, 1 - newValue, newValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Performs given action for index array of each subset (in Gray code order), until all subsets have been
+     * processed or the action returns {@code false}.
+     *
+     * <p>
+     * The action is given a decreasing sequence of indexes of elements of the subset, so that the smallest elements,
+     * which are the ones toggled by Gray code steps, lie at the end of it. Arrays are reused (one per subset size) and
+     * updated incrementally: each step writes only the positions it changes, plus the positions of the array that
+     * changed since it was last given to the action (which is constant amortized time). Arrays must be neither
+     * modified nor retained by the action.
+     * </p>
+     *
+     * @param action action to be performed for index array of each subset
+     * @return {@code true} if all subsets have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        final int[][] buffers = new int[n + 1][];
+        for (int size = 0; size <= n; size++) {
+            buffers[size] = new int[size];
+        }
+        // low[size] is the least size reached since the enumeration last went below given size (zero if it has not
+        // reached given size yet), so that array of given size is stale only from position low[size] - 2 on
+        final int[] low = new int[n + 1];
+        int[] index = buffers[0];
+        if (!action.accept(index)) {
+            return false;
+        }
+        final long count = count();
+        for (long rank = 1; rank < count; rank++) {
+            final int size = index.length;
+            final int element = (rank & 1) != 0 ? 0 : index[size - 1] + 1;
+            final boolean added = element == 0 ? size == 0 || index[size - 1] != 0
+                    : size < 2 || index[size - 2] != element;
+            final int[] next;
+            if (added) {
+                next = buffers[size + 1];
+                final int least = low[size + 1];
+                if (size + 2 <= n) {
+                    low[size + 2] = Math.min(low[size + 2], least);
+                }
+                refresh(index, next, Math.max(least - 2, 0), element == 0 ? size : size - 1);
+                if (element == 0) {
+                    next[size] = 0;
+                } else {
+                    next[size - 1] = element;
+                    next[size] = index[size - 1];
+                }
+            } else {
+                next = buffers[size - 1];
+                low[size] = size - 1;
+                refresh(index, next, Math.max(size - 2, 0), element == 0 ? size - 1 : size - 2);
+                if (element != 0) {
+                    next[size - 2] = index[size - 1];
+                }
+            }
+            index = next;
+            if (!action.accept(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Copies positions [from, to) of current index array into the next one
+    private static void refresh(int[] index, int[] next, int from, int to) {
+        if (from < to) {
+            System.arraycopy(index, from, next, from, to - from);
+        }
+    }
+}
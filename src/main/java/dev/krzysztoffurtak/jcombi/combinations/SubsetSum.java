@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Subsets of given values (optionally of fixed size {@code k}) summing up exactly to the target, found by meeting in
+ * the middle.
+ *
+ * <p>
+ * Sums of all subsets of the lower half of values are kept in a primitive hash table, then subsets of the upper half
+ * are enumerated (in Gray code order) and joined with matching subsets of the lower half. Both time and memory are
+ * thus about {@code 2^(n/2)} instead of {@code 2^n}. The table is built on first use. Subsets are represented as
+ * bitmasks (see {@link CombinationMasks#select(long, java.util.List)}) or index arrays. Sums are assumed to fit in
+ * {@code long}.
+ * </p>
+ */
+public class SubsetSum {
+    // The hash table of the lower half (2^28 subsets at most) has 4 slots per subset, which is the most an array
+    // indexed by int can hold
+    private static final int MAX_N = 57;
+    private static final int ANY_SIZE = -1;
+
+    private final long[] values;
+    private final long target;
+    private final int k;
+    private final int lowerHalf;
+    private SumTable[] tables;
+
+    public SubsetSum(long[] values, long target) {
+        this(values, target, ANY_SIZE, false);
+    }
+
+    public SubsetSum(long[] values, long target, int k) {
+        this(values, target, k, true);
+    }
+
+    private SubsetSum(long[] values, long target, int k, boolean fixedSize) {
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        if (values.length > MAX_N) {
+            throw new IllegalArgumentException("values must be an array of at most 57 elements");
+        }
+        if (fixedSize && k < 0) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (fixedSize && k > values.length) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+
+        this.values = values.clone();
+        this.target = target;
+        this.k = k;
+        this.lowerHalf = values.length / 2;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return number of values
+     */
+    public int n() {
+        return values.length;
+    }
+
+    /**
+     * Returns the number of subsets summing up to the target (without enumerating them one by one).
+     *
+     * @return number of subsets
+     */
+    public long count() {
+        final SumTable[] sumTables = tables();
+        final long[] count = new long[1];
+        forEachUpperSubset((upperMask, upperSum) -> {
+            final SumTable table = tableFor(sumTables, upperMask);
+            if (table != null) {
+                count[0] += table.count(target - upperSum);
+            }
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} with masks of all subsets summing up to the target as its source.
+     *
+     * @return sequential {@code LongStream} over masks
+     */
+    public LongStream masks() {
+        final SumTable[] sumTables = tables();
+        final int upperHalf = n() - lowerHalf;
+        return LongStream.range(0, 1L << upperHalf).flatMap(rank -> {
+            final long upperMask = rank ^ (rank >>> 1);
+            final SumTable table = tableFor(sumTables, upperMask);
+            if (table == null) {
+                return null;
+            }
+            final LongStream.Builder matches = LongStream.builder();
+            table.forEach(target - upperSum(upperMask), lowerMask -> matches.add(lowerMask | upperMask << lowerHalf));
+            return matches.build();
+        });
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with index arrays of all subsets summing up to the target as its source.
+     *
+     * @return sequential {@code Stream} over index arrays
+     */
+    public Stream<int[]> stream() {
+        return masks().mapToObj(CombinationMasks::indexes);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with index arrays of all subsets summing up to the target as its
+     * source. Subsets of the upper half are split by rank.
+     *
+     * @return possibly parallel {@code Stream} over index arrays
+     */
+    public Stream<int[]> parallelStream() {
+        return masks().parallel().mapToObj(CombinationMasks::indexes);
+    }
+
+    /**
+     * Performs given action for index array of each subset summing up to the target, until all subsets have been
+     * processed or the action returns {@code false}.
+     *
+     * <p>
+     * Index arrays are reused (one per subset size) and must be neither modified nor retained by the action.
+     * </p>
+     *
+     * @param action action to be performed for index array of each subset
+     * @return {@code true} if all subsets have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        final SumTable[] sumTables = tables();
+        final int[][] buffers = new int[n() + 1][];
+        for (int size = 0; size <= n(); size++) {
+            buffers[size] = new int[size];
+        }
+        return forEachUpperSubset((upperMask, upperSum) -> {
+            final SumTable table = tableFor(sumTables, upperMask);
+            if (table == null) {
+                return true;
+            }
+            for (int entry = table.first(target - upperSum); entry != 0; entry = table.next(entry)) {
+                final long mask = table.mask(entry) | upperMask << lowerHalf;
+                final int[] index = buffers[Long.bitCount(mask)];
+                long remaining = mask;
+                for (int i = 0; remaining != 0; i++, remaining &= remaining - 1) {
+                    index[i] = Long.numberOfTrailingZeros(remaining);
+                }
+                if (!action.accept(index)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private synchronized SumTable[] tables() {
+        if (tables == null) {
+            // with fixed size only lower subsets of at most k elements can ever be joined
+            final SumTable[] sumTables = new SumTable[k == ANY_SIZE ? 1 : Math.min(k, lowerHalf) + 1];
+            for (int size = 0; size < sumTables.length; size++) {
+                final long capacity = k == ANY_SIZE ? 1L << lowerHalf : Combinatorics.binomial(lowerHalf, size);
+                sumTables[size] = new SumTable((int) capacity);
+            }
+
+            long mask = 0;
+            long sum = 0;
+            for (long rank = 0; rank < 1L << lowerHalf; rank++) {
+                if (rank > 0) {
+                    final int element = Long.numberOfTrailingZeros(rank);
+                    mask ^= 1L << element;
+                    sum += (mask >>> element & 1) != 0 ? values[element] : -values[element];
+                }
+                if (k == ANY_SIZE) {
+                    sumTables[0].put(sum, mask);
+                } else if (Long.bitCount(mask) < sumTables.length) {
+                    sumTables[Long.bitCount(mask)].put(sum, mask);
+                }
+            }
+            tables = sumTables;
+        }
+        return tables;
+    }
+
+    private SumTable tableFor(SumTable[] sumTables, long upperMask) {
+        if (k == ANY_SIZE) {
+            return sumTables[0];
+        }
+        final int size = k - Long.bitCount(upperMask);
+        return size >= 0 && size < sumTables.length ? sumTables[size] : null;
+    }
+
+    private long upperSum(long upperMask) {
+        long sum = 0;
+        for (long remaining = upperMask; remaining != 0; remaining &= remaining - 1) {
+            sum += values[lowerHalf + Long.numberOfTrailingZeros(remaining)];
+        }
+        return sum;
+    }
+
+    private boolean forEachUpperSubset(UpperSubsetVisitor visitor) {
+        final int upperHalf = n() - lowerHalf;
+        long mask = 0;
+        long sum = 0;
+        for (long rank = 0; rank < 1L << upperHalf; rank++) {
+            if (rank > 0) {
+                final int element = Long.numberOfTrailingZeros(rank);
+                mask ^= 1L << element;
+                sum += (mask >>> element & 1) != 0 ? values[lowerHalf + element] : -values[lowerHalf + element];
+            }
+            if (!visitor.visit(mask, sum)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface UpperSubsetVisitor {
+        boolean visit(long mask, long sum);
+    }
+
+    /**
+     * Multimap from sums to masks of subsets, with open addressing and entries of the same sum chained together.
+     * Entries are numbered from 1, so that 0 stands for no entry.
+     */
+    private static final class SumTable {
+        private final long[] keys;
+        private final int[] heads;
+        private final long[] masks;
+        private final int[] next;
+        private final int shift;
+        private int size;
+
+        SumTable(int capacity) {
+            final long slotCount = Long.highestOneBit(Math.max(capacity, 1)) << 2;
+            if (slotCount > 1 << 30) {
+                throw new IllegalArgumentException("values must be an array of at most 57 elements");
+            }
+            final int slots = (int) slotCount;
+            this.keys = new long[slots];
+            this.heads = new int[slots];
+            this.masks = new long[capacity + 1];
+            this.next = new int[capacity + 1];
+            this.shift = Long.SIZE - Integer.numberOfTrailingZeros(slots);
+        }
+
+        void put(long sum, long mask) {
+            final int slot = slot(sum);
+            masks[++size] = mask;
+            next[size] = heads[slot];
+            heads[slot] = size;
+            keys[slot] = sum;
+        }
+
+        int first(long sum) {
+            return heads[slot(sum)];
+        }
+
+        int next(int entry) {
+            return next[entry];
+        }
+
+        long mask(int entry) {
+            return masks[entry];
+        }
+
+        long count(long sum) {
+            long count = 0;
+            for (int entry = first(sum); entry != 0; entry = next[entry]) {
+                count++;
+            }
+            return count;
+        }
+
+        void forEach(long sum, LongConsumer action) {
+            for (int entry = first(sum); entry != 0; entry = next[entry]) {
+                action.accept(masks[entry]);
+            }
+        }
+
+        private int slot(long sum) {
+            int slot = (int) (sum * 0x9E3779B97F4A7C15L >>> shift);
+            while (heads[slot] != 0 && keys[slot] != sum) {
+                slot = (slot + 1) & (heads.length - 1);
+            }
+            return slot;
+        }
+    }
+}
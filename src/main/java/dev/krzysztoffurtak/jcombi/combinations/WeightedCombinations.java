@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.FirstElementSpliterator;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combinations without repetition of {@code k} out of {@code n} weighted elements, whose total weight lies within
+ * {@code [lo, hi]}.
+ *
+ * <p>
+ * Weights have to be sorted in non-decreasing order (and so has to be the input set). Thanks to that the lightest and
+ * the heaviest completion of a prefix are known from prefix sums of weights, and every prefix which cannot be
+ * completed within bounds is skipped together with all combinations starting with it. Total weights are assumed to
+ * fit in {@code long}.
+ * </p>
+ *
+ * @param <T> type of combinations
+ */
+public class WeightedCombinations<T> implements Iterable<T> {
+    private final int n;
+    private final int k;
+    private final long lo;
+    private final long hi;
+    private final long[] weights;
+    private final long[] prefixSums;
+    private final Function<int[], T> combinationsVisitor;
+
+    public WeightedCombinations(int k, long[] weights, long lo, long hi, Function<int[], T> combinationsVisitor) {
+        if (weights == null) {
+            throw new IllegalArgumentException("weights cannot be null");
+        }
+        for (int i = 1; i < weights.length; i++) {
+            if (weights[i - 1] > weights[i]) {
+                throw new IllegalArgumentException("weights must be sorted in non-decreasing order");
+            }
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (k > weights.length) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+        if (lo > hi) {
+            throw new IllegalArgumentException("lo must be less or equal to hi");
+        }
+        if (combinationsVisitor == null) {
+            throw new IllegalArgumentException("combinationsVisitor cannot be null");
+        }
+
+        this.n = weights.length;
+        this.k = k;
+        this.lo = lo;
+        this.hi = hi;
+        this.weights = weights.clone();
+        this.prefixSums = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefixSums[i + 1] = prefixSums[i] + weights[i];
+        }
+        this.combinationsVisitor = combinationsVisitor;
+    }
+
+    /**
+     * Returns the size of the input set from which combinations are selected.
+     *
+     * @return size of the input set
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the size of the combinations to be enumerated.
+     *
+     * @return size of the combination
+     */
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Returns total weight of the combination.
+     *
+     * @param combination index array of the combination
+     * @return sum of weights of elements of the combination
+     */
+    public long weight(int[] combination) {
+        return Arrays.stream(combination).mapToLong(i -> weights[i]).sum();
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with all combinations within bounds as its source.
+     *
+     * @return sequential {@code Stream} over combinations
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with all combinations within bounds as its source.
+     *
+     * @return possibly parallel {@code Stream} over combinations
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over combinations within bounds, which splits the range of first elements of
+     * combinations.
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FirstElementSpliterator<>(0, empty() ? 0 : n, Search::new, combinationsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each combination within bounds (in lexicographic order), until all
+     * combinations have been processed or the action returns {@code false}.
+     *
+     * @param action action to be performed for index array of each combination
+     * @return {@code true} if all combinations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        final Search search = new Search();
+        if (empty() || !search.start(0, n)) {
+            return true;
+        }
+        do {
+            if (!action.accept(search.index)) {
+                return false;
+            }
+        } while (search.advance());
+        return true;
+    }
+
+    /**
+     * Returns an iterator over combinations within bounds.
+     *
+     * @return an {@code Iterator}
+     */
+    @Override
+    public TupleIterator<T> iterator() {
+        final Search search = new Search();
+        if (empty() || !search.start(0, n)) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(search.index, k, index -> search.advance(), combinationsVisitor);
+    }
+
+    private boolean empty() {
+        return n == 0 || k == 0;
+    }
+
+    private final class Search implements FirstElementSpliterator.Search {
+        private final int[] index = new int[k];
+        private final long[] sums = new long[k + 1];
+        private int to;
+
+        @Override
+        public boolean start(int from, int to) {
+            this.to = to;
+            return search(0, from);
+        }
+
+        @Override
+        public int[] index() {
+            return index;
+        }
+
+        @Override
+        public boolean advance() {
+            return search(k - 1, index[k - 1] + 1);
+        }
+
+        private boolean search(int depth, int from) {
+            int i = depth;
+            int candidate = from;
+            while (i < k) {
+                final int element = firstFeasible(i, candidate);
+                if (element >= 0) {
+                    index[i] = element;
+                    sums[i + 1] = sums[i] + weights[element];
+                    candidate = element + 1;
+                    i++;
+                } else if (i > 0) {
+                    i--;
+                    candidate = index[i] + 1;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int firstFeasible(int depth, int from) {
+            final int remaining = k - depth - 1;
+            final int end = depth == 0 ? Math.min(to, n - remaining) : n - remaining;
+            final long heaviest = prefixSums[n] - prefixSums[n - remaining];
+            for (int element = from; element < end; element++) {
+                final long sum = sums[depth] + weights[element];
+                if (sum + prefixSums[element + 1 + remaining] - prefixSums[element + 1] > hi) {
+                    return -1;
+                }
+                if (sum + heaviest >= lo) {
+                    return element;
+                }
+            }
+            return -1;
+        }
+    }
+}
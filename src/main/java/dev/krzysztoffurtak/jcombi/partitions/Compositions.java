@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.RankSpliterator;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static dev.krzysztoffurtak.jcombi.Combinatorics.binomial;
+import static dev.krzysztoffurtak.jcombi.Combinatorics.binomialExact;
+
+/**
+ * Compositions of integer {@code n} into {@code k} positive parts (ordered sequences of {@code k} positive integers
+ * summing up to {@code n}).
+ *
+ * <p>
+ * Each composition is an index array of length {@code k} (parts). Compositions are enumerated in lexicographic order,
+ * and each of them is produced in place from the previous one in constant amortized time. The number of compositions
+ * is {@code (n - 1) choose (k - 1)}.
+ * </p>
+ *
+ * @param <T> type of compositions
+ */
+public class Compositions<T> implements Iterable<T> {
+    private final int n;
+    private final int k;
+    private final Function<int[], T> compositionsVisitor;
+
+    public Compositions(int n, int k, Function<int[], T> compositionsVisitor) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater of equal to zero");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (k > n) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+        if (compositionsVisitor == null) {
+            throw new IllegalArgumentException("compositionsVisitor cannot be null");
+        }
+
+        this.n = n;
+        this.k = k;
+        this.compositionsVisitor = compositionsVisitor;
+    }
+
+    /**
+     * Returns the integer to be composed.
+     *
+     * @return integer to be composed
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the number of parts of compositions.
+     *
+     * @return number of parts
+     */
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Returns the number of compositions.
+     *
+     * @return number of compositions
+     * @throws ArithmeticException if the number of compositions cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
+    public long count() {
+        return empty() ? 0 : binomial(n - 1, k - 1);
+    }
+
+    /**
+     * Returns the number of compositions as {@code BigInteger}.
+     *
+     * @return number of compositions
+     */
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : binomialExact(n - 1, k - 1);
+    }
+
+    /**
+     * Returns position of the composition in lexicographic order (the order in which compositions are enumerated).
+     *
+     * @param composition index array of the composition
+     * @return position of the composition ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code composition} is not one of enumerated compositions
+     */
+    public long rank(int[] composition) {
+        checkComposition(composition);
+        long rank = 0;
+        for (int i = 0, rest = n; i < k - 1; rest -= composition[i++]) {
+            // compositions with smaller i-th part are those of the rest with i-th part less than composition[i]
+            rank += binomial(rest - 1, k - 1 - i) - binomial(rest - composition[i], k - 1 - i);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns index array of the composition at given position of lexicographic order (the order in which
+     * compositions are enumerated).
+     *
+     * @param rank position of the composition
+     * @return index array of the composition
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public int[] unrank(long rank) {
+        return unrank(rank, new int[k]);
+    }
+
+    /**
+     * Stores index array of the composition at given position of lexicographic order in {@code composition}.
+     *
+     * @param rank        position of the composition
+     * @param composition array of length {@code k} where index array of the composition is stored
+     * @return {@code composition}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()} or length of
+     *                                  {@code composition} is not equal to {@code k}
+     */
+    public int[] unrank(long rank, int[] composition) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(composition);
+
+        int rest = n;
+        for (int i = 0; i < k - 1; i++) {
+            int part = 1;
+            long block = binomial(rest - 2, k - 2 - i);
+            while (rank >= block) {
+                rank -= block;
+                part++;
+                block = binomial(rest - part - 1, k - 2 - i);
+            }
+            composition[i] = part;
+            rest -= part;
+        }
+        composition[k - 1] = rest;
+        return composition;
+    }
+
+    /**
+     * Returns position of the composition in lexicographic order as {@code BigInteger}.
+     *
+     * @param composition index array of the composition
+     * @return position of the composition ({@code 0 <= rank < countExact()})
+     * @throws IllegalArgumentException if {@code composition} is not one of enumerated compositions
+     */
+    public BigInteger rankExact(int[] composition) {
+        checkComposition(composition);
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0, rest = n; i < k - 1; rest -= composition[i++]) {
+            rank = rank.add(binomialExact(rest - 1, k - 1 - i))
+                    .subtract(binomialExact(rest - composition[i], k - 1 - i));
+        }
+        return rank;
+    }
+
+    /**
+     * Returns index array of the composition at given position of lexicographic order.
+     *
+     * @param rank position of the composition
+     * @return index array of the composition
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()}
+     */
+    public int[] unrank(BigInteger rank) {
+        return unrank(rank, new int[k]);
+    }
+
+    /**
+     * Stores index array of the composition at given position of lexicographic order in {@code composition}.
+     *
+     * @param rank        position of the composition
+     * @param composition array of length {@code k} where index array of the composition is stored
+     * @return {@code composition}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()} or length of
+     *                                  {@code composition} is not equal to {@code k}
+     */
+    public int[] unrank(BigInteger rank, int[] composition) {
+        if (rank == null || rank.signum() < 0 || rank.compareTo(countExact()) >= 0) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(composition);
+
+        int rest = n;
+        for (int i = 0; i < k - 1; i++) {
+            int part = 1;
+            BigInteger block = binomialExact(rest - 2, k - 2 - i);
+            while (rank.compareTo(block) >= 0) {
+                rank = rank.subtract(block);
+                part++;
+                block = binomialExact(rest - part - 1, k - 2 - i);
+            }
+            composition[i] = part;
+            rest -= part;
+        }
+        composition[k - 1] = rest;
+        return composition;
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with all compositions of this as its source.
+     *
+     * @return sequential {@code Stream} over all compositions
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with all compositions of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all compositions
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over compositions of type {@code T}.
+     *
+     * <p>
+     * The {@code Spliterator} knows its exact size and splits the range of ranks in half. If the number of
+     * compositions cannot be represented as long, the {@code Spliterator} falls back to sequential traversal of
+     * {@link #iterator()}.
+     * </p>
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        if (countExact().bitLength() >= Long.SIZE) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return new RankSpliterator<>(count(), k, rank -> newIndex(unrank(rank)), this::advance, compositionsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each composition (in lexicographic order), until all compositions
+     * have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)} this method neither applies {@code compositionsVisitor} nor allocates anything
+     * per composition: the action is given the live index array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each composition
+     * @return {@code true} if all compositions have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = firstIndex();
+        int last = rightmost(index);
+        do {
+            if (!action.accept(index)) {
+                return false;
+            }
+            last = advance(index, last);
+        } while (last >= 0);
+        return true;
+    }
+
+    /**
+     * Returns an iterator over compositions of type {@code T}.
+     *
+     * @return an {@code Iterator}
+     */
+    @Override
+    public TupleIterator<T> iterator() {
+        if (empty()) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(newIndex(firstIndex()), k, index -> advance(index) >= 0, compositionsVisitor);
+    }
+
+    private boolean empty() {
+        return n == 0 || k == 0;
+    }
+
+    private int[] firstIndex() {
+        final int[] index = new int[k];
+        Arrays.fill(index, 1);
+        index[k - 1] = n - k + 1;
+        return index;
+    }
+
+    // Index array of iterators and spliterators holds the parts followed by the position of the rightmost part
+    // greater than one, so that the successor does not have to scan the trailing ones
+    private int[] newIndex(int[] composition) {
+        final int[] index = Arrays.copyOf(composition, k + 1);
+        index[k] = rightmost(composition);
+        return index;
+    }
+
+    private int advance(int[] index) {
+        index[k] = advance(index, index[k]);
+        return index[k];
+    }
+
+    // The part before the rightmost part greater than one is increased by one, and the rest (less by one) moves to
+    // the last part. The rightmost part greater than one is then the last part, unless it is one, or else the increased
+    // part, so it never has to be searched for.
+    private int advance(int[] index, int last) {
+        if (last == 0) {
+            return -1;
+        }
+
+        final int rest = index[last] - 1;
+        index[last - 1]++;
+        index[last] = 1;
+        index[k - 1] = rest;
+        return rest > 1 ? k - 1 : last - 1;
+    }
+
+    // Returns position of the rightmost part greater than one, or zero if all parts after the first one are ones
+    private int rightmost(int[] composition) {
+        int i = k - 1;
+        while (i > 0 && composition[i] == 1) {
+            i--;
+        }
+        return i;
+    }
+
+    private void checkComposition(int[] composition) {
+        checkLength(composition);
+        long sum = 0;
+        for (final int part : composition) {
+            if (part <= 0) {
+                throw new IllegalArgumentException("composition must consist of positive parts summing up to n");
+            }
+            sum += part;
+        }
+        if (sum != n) {
+            throw new IllegalArgumentException("composition must consist of positive parts summing up to n");
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    private void checkLength(int[] composition) {
+        if (composition == null || composition.length != k) {
+            throw new IllegalArgumentException("composition must be an array of length k");
+        }
+    }
+}
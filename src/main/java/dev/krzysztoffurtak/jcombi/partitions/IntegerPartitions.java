@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.FirstElementSpliterator;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Partitions of integer {@code n} into at most {@code k} parts, none of them greater than {@code m}.
+ *
+ * <p>
+ * Each partition is a non-increasing index array of length {@code k} (parts), padded with zeros. Partitions are
+ * enumerated in reverse lexicographic order, starting with the one with the greatest first part, and each of them is
+ * produced in place from the previous one in constant amortized time.
+ * </p>
+ *
+ * @param <T> type of partitions
+ */
+public class IntegerPartitions<T> implements Iterable<T> {
+    private final int n;
+    private final int k;
+    private final int m;
+    private final Function<int[], T> partitionsVisitor;
+
+    public IntegerPartitions(int n, Function<int[], T> partitionsVisitor) {
+        this(n, n, n, partitionsVisitor);
+    }
+
+    /**
+     * Creates partitions of {@code n} into at most {@code k} parts, none of them greater than {@code m}. Bounds
+     * greater than {@code n} are the same as {@code n}.
+     *
+     * @param n                 integer to be partitioned
+     * @param k                 maximal number of parts
+     * @param m                 maximal part
+     * @param partitionsVisitor function creating partitions from index arrays
+     */
+    public IntegerPartitions(int n, int k, int m, Function<int[], T> partitionsVisitor) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater of equal to zero");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (m < 0) {
+            throw new IllegalArgumentException("m must be greater of equal to zero");
+        }
+        if (partitionsVisitor == null) {
+            throw new IllegalArgumentException("partitionsVisitor cannot be null");
+        }
+
+        this.n = n;
+        this.k = Math.min(k, n);
+        this.m = Math.min(m, n);
+        this.partitionsVisitor = partitionsVisitor;
+    }
+
+    /**
+     * Returns the integer to be partitioned.
+     *
+     * @return integer to be partitioned
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the maximal number of parts (the length of index arrays).
+     *
+     * @return maximal number of parts
+     */
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Returns the maximal part.
+     *
+     * @return maximal part
+     */
+    public int m() {
+        return m;
+    }
+
+    /**
+     * Returns the number of partitions.
+     *
+     * @return number of partitions
+     * @throws ArithmeticException if the number of partitions cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
+    public long count() {
+        return empty() ? 0 : Combinatorics.partitionNumber(n, k, m);
+    }
+
+    /**
+     * Returns the number of partitions as {@code BigInteger}.
+     *
+     * @return number of partitions
+     */
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : Combinatorics.partitionNumberExact(n, k, m);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with all partitions of this as its source.
+     *
+     * @return sequential {@code Stream} over all partitions
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with all partitions of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all partitions
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over partitions, which splits the range of first parts of partitions.
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FirstElementSpliterator<>(0, empty() ? 0 : firstParts(), Search::new, partitionsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each partition (in reverse lexicographic order), until all partitions
+     * have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * The action is given the live index array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each partition
+     * @return {@code true} if all partitions have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+
+        final Search search = new Search();
+        if (empty() || !search.start(0, firstParts())) {
+            return true;
+        }
+        do {
+            if (!action.accept(search.index)) {
+                return false;
+            }
+        } while (search.advance());
+        return true;
+    }
+
+    /**
+     * Returns an iterator over partitions.
+     *
+     * @return an {@code Iterator}
+     */
+    @Override
+    public TupleIterator<T> iterator() {
+        final Search search = new Search();
+        if (empty() || !search.start(0, firstParts())) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(search.index, k, index -> search.advance(), partitionsVisitor);
+    }
+
+    private boolean empty() {
+        return n == 0 || (long) k * m < n;
+    }
+
+    // First parts range from m down to ceil(n / k), and i-th of them is m - i
+    private int firstParts() {
+        return m - (n + k - 1) / k + 1;
+    }
+
+    private final class Search implements FirstElementSpliterator.Search {
+        private final int[] index = new int[k];
+        // number of non-zero parts and number of trailing parts equal to one among them
+        private int length;
+        private int ones;
+        private int last;
+
+        @Override
+        public boolean start(int from, int to) {
+            last = m - to + 1;
+            index[0] = m - from;
+            length = 1;
+            fill(1, n - index[0]);
+            if (index[0] == 1) {
+                ones = length;
+            }
+            return true;
+        }
+
+        @Override
+        public int[] index() {
+            return index;
+        }
+
+        // The rightmost part that can be decreased by one, with the parts after it still able to hold the rest, is
+        // decreased and followed by the greatest parts possible. Trailing ones are never scanned: the search starts
+        // with the rightmost part greater than one, and a part decreased to one only joins the trailing ones and
+        // appends another one.
+        @Override
+        public boolean advance() {
+            int i = length - ones - 1;
+            int rest = ones;
+            while (i >= 0 && (long) (k - 1 - i) * (index[i] - 1) < rest + 1) {
+                rest += index[i];
+                i--;
+            }
+            if (i < 0) {
+                return false;
+            }
+
+            index[i]--;
+            if (index[i] == 1) {
+                index[length++] = 1;
+                ones += 2;
+            } else {
+                fill(i + 1, rest + 1);
+            }
+            return i > 0 || index[0] >= last;
+        }
+
+        // Fills parts from given position on with the greatest parts (not greater than the previous one) summing up to
+        // given value, and clears the remaining ones
+        private void fill(int from, int sum) {
+            final int part = index[from - 1];
+            final int previousLength = length;
+            int i = from;
+            for (; sum > 0; i++) {
+                index[i] = Math.min(part, sum);
+                sum -= index[i];
+            }
+            length = i;
+            ones = index[length - 1] == 1 ? 1 : 0;
+            for (; i < previousLength; i++) {
+                index[i] = 0;
+            }
+        }
+    }
+}
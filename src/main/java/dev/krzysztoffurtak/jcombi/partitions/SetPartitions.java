@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.RankSpliterator;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Partitions of a set of {@code n} elements into non-empty blocks, optionally with a fixed number of blocks.
+ *
+ * <p>
+ * Each partition is given as a restricted growth string: an index array of length {@code n}, in which {@code i}-th
+ * element is the number of the block containing {@code i}-th element of the input set, and blocks are numbered in order
+ * of their first elements (so {@code a[0] = 0} and {@code a[i] <= 1 + max(a[0], ..., a[i-1])}). Every partition is
+ * enumerated exactly once, in lexicographic order of restricted growth strings. The number of partitions is the Bell
+ * number of {@code n}, or the Stirling number of the second kind if the number of blocks is fixed.
+ * </p>
+ *
+ * @param <T> type of partitions
+ */
+public class SetPartitions<T> implements Iterable<T> {
+    private static final int ANY = -1;
+
+    private final int n;
+    private final int k;
+    private final Function<int[], T> partitionsVisitor;
+    // completions[r][b] is the number of ways to assign r more elements once b blocks have been opened (computed on
+    // first use, as only counting and ranking need it)
+    private BigInteger[][] completions;
+    private long[][] completionsSaturated;
+
+    public SetPartitions(int n, Function<int[], T> partitionsVisitor) {
+        this(n, ANY, partitionsVisitor);
+    }
+
+    public SetPartitions(int n, int k, Function<int[], T> partitionsVisitor) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be greater of equal to zero");
+        }
+        if (k < 0 && k != ANY) {
+            throw new IllegalArgumentException("k must be greater of equal to zero");
+        }
+        if (k > n) {
+            throw new IllegalArgumentException("k must be less or equal to n");
+        }
+        if (partitionsVisitor == null) {
+            throw new IllegalArgumentException("partitionsVisitor cannot be null");
+        }
+
+        this.n = n;
+        this.k = k;
+        this.partitionsVisitor = partitionsVisitor;
+    }
+
+    /**
+     * Returns the size of the input set to be partitioned.
+     *
+     * @return size of the input set
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the number of blocks of partitions, if it is fixed.
+     *
+     * @return number of blocks or empty {@code OptionalInt} if partitions into any number of blocks are enumerated
+     */
+    public OptionalInt k() {
+        return k == ANY ? OptionalInt.empty() : OptionalInt.of(k);
+    }
+
+    /**
+     * Returns the number of partitions (Bell number of {@code n}, or Stirling number of the second kind of {@code n}
+     * and {@code k}).
+     *
+     * @return number of partitions
+     * @throws ArithmeticException if the number of partitions cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
+    public long count() {
+        if (empty()) {
+            return 0;
+        }
+        final long count = completionsSaturated()[n - 1][1];
+        if (count == Long.MAX_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of partitions as {@code BigInteger}.
+     *
+     * @return number of partitions
+     */
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : completions()[n - 1][1];
+    }
+
+    /**
+     * Returns position of the partition in lexicographic order of restricted growth strings (the order in which
+     * partitions are enumerated).
+     *
+     * @param partition restricted growth string of the partition
+     * @return position of the partition ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code partition} is not one of enumerated partitions
+     * @throws ArithmeticException      if the position cannot be represented as long (use
+     *                                  {@link #rankExact(int[])} instead)
+     */
+    public long rank(int[] partition) {
+        checkPartition(partition);
+        final long[][] completionsSaturated = completionsSaturated();
+        // every completion count on the way is at most count(), so ranks are exact once it fits in long
+        if (completionsSaturated[n - 1][1] == Long.MAX_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        long rank = 0;
+        for (int i = 1, blocks = 1; i < n; i++) {
+            rank += partition[i] * completionsSaturated[n - 1 - i][blocks];
+            blocks = Math.max(blocks, partition[i] + 1);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns restricted growth string of the partition at given position of lexicographic order (the order in which
+     * partitions are enumerated).
+     *
+     * @param rank position of the partition
+     * @return restricted growth string of the partition
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public int[] unrank(long rank) {
+        return unrank(rank, new int[n]);
+    }
+
+    /**
+     * Stores restricted growth string of the partition at given position of lexicographic order in {@code partition}.
+     *
+     * @param rank      position of the partition
+     * @param partition array of length {@code n} where restricted growth string of the partition is stored
+     * @return {@code partition}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()} or length of
+     *                                  {@code partition} is not equal to {@code n}
+     */
+    public int[] unrank(long rank, int[] partition) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(partition);
+
+        final long[][] completionsSaturated = completionsSaturated();
+        partition[0] = 0;
+        for (int i = 1, blocks = 1; i < n; i++) {
+            final long block = completionsSaturated[n - 1 - i][blocks];
+            if (rank < blocks * block) {
+                partition[i] = (int) (rank / block);
+                rank %= block;
+            } else {
+                partition[i] = blocks++;
+                rank -= (blocks - 1) * block;
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * Returns position of the partition in lexicographic order of restricted growth strings as {@code BigInteger}.
+     *
+     * @param partition restricted growth string of the partition
+     * @return position of the partition ({@code 0 <= rank < countExact()})
+     * @throws IllegalArgumentException if {@code partition} is not one of enumerated partitions
+     */
+    public BigInteger rankExact(int[] partition) {
+        checkPartition(partition);
+        final BigInteger[][] completions = completions();
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 1, blocks = 1; i < n; i++) {
+            rank = rank.add(completions[n - 1 - i][blocks].multiply(BigInteger.valueOf(partition[i])));
+            blocks = Math.max(blocks, partition[i] + 1);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns restricted growth string of the partition at given position of lexicographic order.
+     *
+     * @param rank position of the partition
+     * @return restricted growth string of the partition
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()}
+     */
+    public int[] unrank(BigInteger rank) {
+        return unrank(rank, new int[n]);
+    }
+
+    /**
+     * Stores restricted growth string of the partition at given position of lexicographic order in {@code partition}.
+     *
+     * @param rank      position of the partition
+     * @param partition array of length {@code n} where restricted growth string of the partition is stored
+     * @return {@code partition}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()} or length of
+     *                                  {@code partition} is not equal to {@code n}
+     */
+    public int[] unrank(BigInteger rank, int[] partition) {
+        if (rank == null || rank.signum() < 0 || rank.compareTo(countExact()) >= 0) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(partition);
+
+        final BigInteger[][] completions = completions();
+        partition[0] = 0;
+        for (int i = 1, blocks = 1; i < n; i++) {
+            final BigInteger block = completions[n - 1 - i][blocks];
+            final BigInteger existing = block.multiply(BigInteger.valueOf(blocks));
+            if (rank.compareTo(existing) < 0) {
+                final BigInteger[] quotientAndRemainder = rank.divideAndRemainder(block);
+                partition[i] = quotientAndRemainder[0].intValue();
+                rank = quotientAndRemainder[1];
+            } else {
+                partition[i] = blocks++;
+                rank = rank.subtract(existing);
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with all partitions of this as its source.
+     *
+     * @return sequential {@code Stream} over all partitions
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with all partitions of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all partitions
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over partitions of type {@code T}.
+     *
+     * <p>
+     * The {@code Spliterator} knows its exact size and splits the range of ranks in half. If the number of partitions
+     * cannot be represented as long, the {@code Spliterator} falls back to sequential traversal of {@link #iterator()}.
+     * </p>
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        if (countExact().bitLength() >= Long.SIZE) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return new RankSpliterator<>(count(), n, this::newIndex, this::advance, partitionsVisitor);
+    }
+
+    /**
+     * Performs given action for restricted growth string of each partition (in lexicographic order), until all
+     * partitions have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)} this method neither applies {@code partitionsVisitor} nor allocates anything per
+     * partition: the action is given a live array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for restricted growth string of each partition
+     * @return {@code true} if all partitions have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = firstIndex();
+        final int[] partition = Arrays.copyOf(index, n);
+        int changed;
+        do {
+            if (!action.accept(partition)) {
+                return false;
+            }
+            changed = advance(index);
+            if (changed >= 0) {
+                System.arraycopy(index, changed, partition, changed, n - changed);
+            }
+        } while (changed >= 0);
+        return true;
+    }
+
+    /**
+     * Returns an iterator over partitions of type {@code T}.
+     *
+     * @return an {@code Iterator}
+     */
+    @Override
+    public TupleIterator<T> iterator() {
+        if (empty()) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(firstIndex(), n, index -> advance(index) >= 0, partitionsVisitor);
+    }
+
+    private boolean empty() {
+        return n == 0 || k == 0;
+    }
+
+    // Index array holds the restricted growth string followed by its prefix maxima, so that the successor does not
+    // have to look back
+    private int[] newIndex(long rank) {
+        final int[] index = Arrays.copyOf(unrank(rank), 2 * n);
+        for (int i = 1; i < n; i++) {
+            index[n + i] = Math.max(index[n + i - 1], index[i]);
+        }
+        return index;
+    }
+
+    private int[] firstIndex() {
+        final int[] index = new int[2 * n];
+        fill(index, 1);
+        return index;
+    }
+
+    // Algorithm H (restricted growth strings in lexicographic order) from "The Art of Computer Programming", Vol. 4A,
+    // 7.2.1.5, extended to a fixed number of blocks
+    private int advance(int[] index) {
+        for (int i = n - 1; i > 0; i--) {
+            final int value = nextValue(index, i);
+            if (value >= 0) {
+                index[i] = value;
+                index[n + i] = Math.max(index[n + i - 1], value);
+                fill(index, i + 1);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Returns the smallest value greater than the one at given position, after which all remaining blocks can still be
+    // opened, or -1 if there is no such value
+    private int nextValue(int[] index, int i) {
+        final int max = index[n + i - 1];
+        if (index[i] > max) {
+            return -1;
+        }
+        if (k == ANY) {
+            return index[i] + 1;
+        }
+
+        // if there are too few positions left to open all remaining blocks, a new one has to be opened here
+        final int value = Math.max(max, index[i] + 1) + n - 1 - i >= k - 1 ? index[i] + 1 : max + 1;
+        return value <= k - 1 && Math.max(max, value) + n - 1 - i >= k - 1 ? value : -1;
+    }
+
+    // Fills positions from..n-1 with the smallest values leaving enough positions to open all remaining blocks
+    private void fill(int[] index, int from) {
+        final int last = k == ANY ? 0 : k - 1;
+        for (int i = from; i < n; i++) {
+            final int max = index[n + i - 1];
+            index[i] = max + n - 1 - i >= last ? 0 : max + 1;
+            index[n + i] = Math.max(max, index[i]);
+        }
+    }
+
+    private synchronized BigInteger[][] completions() {
+        if (completions == null) {
+            computeCompletions();
+        }
+        return completions;
+    }
+
+    private synchronized long[][] completionsSaturated() {
+        if (completionsSaturated == null) {
+            computeCompletions();
+        }
+        return completionsSaturated;
+    }
+
+    private void computeCompletions() {
+        completions = new BigInteger[Math.max(n, 1)][n + 2];
+        completionsSaturated = new long[Math.max(n, 1)][n + 2];
+        for (int b = 0; b <= n + 1; b++) {
+            completions[0][b] = k == ANY || b == k ? BigInteger.ONE : BigInteger.ZERO;
+        }
+        for (int r = 1; r < n; r++) {
+            completions[r][n + 1] = BigInteger.ZERO;
+            for (int b = n; b >= 0; b--) {
+                completions[r][b] = completions[r - 1][b].multiply(BigInteger.valueOf(b))
+                        .add(completions[r - 1][b + 1]);
+            }
+        }
+        for (int r = 0; r < completions.length; r++) {
+            for (int b = 0; b <= n + 1; b++) {
+                completionsSaturated[r][b] = completions[r][b].bitLength() < Long.SIZE
+                        ? completions[r][b].longValue() : Long.MAX_VALUE;
+            }
+        }
+    }
+
+    private void checkPartition(int[] partition) {
+        checkLength(partition);
+        int blocks = 0;
+        for (final int block : partition) {
+            if (block < 0 || block > blocks) {
+                throw new IllegalArgumentException("partition must be a restricted growth string");
+            }
+            blocks = Math.max(blocks, block + 1);
+        }
+        if (k != ANY && blocks != k) {
+            throw new IllegalArgumentException("partition must consist of k blocks");
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    private void checkLength(int[] partition) {
+        if (partition == null || partition.length != n) {
+            throw new IllegalArgumentException("partition must be an array of length n");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public interface SetPartitionsBuilder<T> extends InputSetBuilder<T, SetPartitionsBuilder.Builder<T>> {
+    interface Builder<T> {
+        /**
+         * Returns partitions of the input set into any number of blocks.
+         *
+         * @return partitions of the input set
+         */
+        SetPartitions<List<List<T>>> all();
+
+        /**
+         * Returns partitions of the input set into exactly {@code k} blocks.
+         *
+         * @param k number of blocks
+         * @return partitions of the input set into {@code k} blocks
+         */
+        SetPartitions<List<List<T>>> into(int k);
+    }
+
+    static SetPartitions<int[]> build(int n) {
+        return new SetPartitions<>(n, InputSetBuilder.sequenceFromIndexes());
+    }
+
+    static SetPartitions<int[]> build(int n, int k) {
+        return new SetPartitions<>(n, k, InputSetBuilder.sequenceFromIndexes());
+    }
+
+    static <T> SetPartitionsBuilder<T> builder() {
+        return inputSet -> new Builder<>() {
+            @Override
+            public SetPartitions<List<List<T>>> all() {
+                return new SetPartitions<>(inputSet.size(), blocksFromInputSet(inputSet));
+            }
+
+            @Override
+            public SetPartitions<List<List<T>>> into(int k) {
+                return new SetPartitions<>(inputSet.size(), k, blocksFromInputSet(inputSet));
+            }
+        };
+    }
+
+    private static <T> Function<int[], List<List<T>>> blocksFromInputSet(List<T> inputSet) {
+        return partition -> {
+            final List<List<T>> blocks = new ArrayList<>();
+            for (int i = 0; i < partition.length; i++) {
+                if (partition[i] == blocks.size()) {
+                    blocks.add(new ArrayList<>());
+                }
+                blocks.get(partition[i]).add(inputSet.get(i));
+            }
+            blocks.replaceAll(Collections::unmodifiableList);
+            return Collections.unmodifiableList(blocks);
+        };
+    }
+}
@@ -22,20 +22,59 @@
 package dev.krzysztoffurtak.jcombi.permutations;
 
 import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.TupleView;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public interface PermutationsBuilder<T> extends InputSetBuilder<T, PermutationsBuilder.Builder<T>> {
     interface Builder<T> {
         PermutationsWithoutRepetition<List<T>> withoutRepetition();
+
+        /**
+         * Returns distinct permutations of the input set treated as a multiset: equal elements are interchangeable, so
+         * each distinct arrangement is enumerated once.
+         *
+         * @return distinct permutations of the input set
+         */
+        PermutationsWithRepetition<List<T>> withRepetition();
+    }
+
+    interface ViewBuilder<T> {
+        PermutationsWithoutRepetition<TupleView<T>> withoutRepetition();
     }
 
     static PermutationsWithoutRepetition<int[]> build(int n) {
         return new PermutationsWithoutRepetition<>(n, InputSetBuilder.sequenceFromIndexes());
     }
 
+    static PermutationsWithRepetition<int[]> build(int[] multiplicities) {
+        return new PermutationsWithRepetition<>(multiplicities, InputSetBuilder.sequenceFromIndexes());
+    }
+
     static <T> PermutationsBuilder<T> builder() {
-        return inputSet -> (Builder<T>) () -> new PermutationsWithoutRepetition<>(
-                inputSet.size(), InputSetBuilder.sequenceFromInputSet(inputSet));
+        return inputSet -> new Builder<>() {
+            @Override
+            public PermutationsWithoutRepetition<List<T>> withoutRepetition() {
+                return new PermutationsWithoutRepetition<>(
+                        inputSet.size(), InputSetBuilder.sequenceFromInputSet(inputSet));
+            }
+
+            @Override
+            public PermutationsWithRepetition<List<T>> withRepetition() {
+                final Map<T, Integer> multiplicities = new LinkedHashMap<>();
+                inputSet.forEach(element -> multiplicities.merge(element, 1, Integer::sum));
+                return new PermutationsWithRepetition<>(
+                        multiplicities.values().stream().mapToInt(Integer::intValue).toArray(),
+                        InputSetBuilder.sequenceFromInputSet(new ArrayList<>(multiplicities.keySet())));
+            }
+        };
+    }
+
+    static <T> InputSetBuilder<T, ViewBuilder<T>> viewBuilder() {
+        return inputSet -> (ViewBuilder<T>) () -> new PermutationsWithoutRepetition<>(
+                inputSet.size(), InputSetBuilder.sequenceViewFromInputSet(inputSet));
     }
 }
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.permutations;
+
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.RankSpliterator;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static dev.krzysztoffurtak.jcombi.Combinatorics.factorialExact;
+
+/**
+ * Distinct permutations of a multiset, in which {@code i}-th element occurs {@code multiplicities[i]} times.
+ *
+ * <p>
+ * Each permutation is an index array of length {@code n} (the sum of multiplicities) of elements {@code 0..m-1}.
+ * Every distinct arrangement is enumerated exactly once, in lexicographic order, so the number of permutations is
+ * the multinomial coefficient {@code n! / (multiplicities[0]! * ... * multiplicities[m-1]!)}.
+ * </p>
+ *
+ * @param <T> type of permutations
+ */
+public class PermutationsWithRepetition<T> implements Iterable<T> {
+    private final int n;
+    private final int[] multiplicities;
+    private final Function<int[], T> permutationsVisitor;
+
+    public PermutationsWithRepetition(int[] multiplicities, Function<int[], T> permutationsVisitor) {
+        if (multiplicities == null) {
+            throw new IllegalArgumentException("multiplicities cannot be null");
+        }
+        long n = 0;
+        for (final int multiplicity : multiplicities) {
+            if (multiplicity < 0) {
+                throw new IllegalArgumentException("multiplicities must be greater or equal to zero");
+            }
+            n += multiplicity;
+        }
+        if (n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("sum of multiplicities must be less or equal to Integer.MAX_VALUE");
+        }
+        if (permutationsVisitor == null) {
+            throw new IllegalArgumentException("permutationsVisitor cannot be null");
+        }
+
+        this.n = (int) n;
+        this.multiplicities = multiplicities.clone();
+        this.permutationsVisitor = permutationsVisitor;
+    }
+
+    /**
+     * Returns the length of permutations (the sum of multiplicities).
+     *
+     * @return length of permutations
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the number of distinct elements of the multiset.
+     *
+     * @return number of distinct elements
+     */
+    public int m() {
+        return multiplicities.length;
+    }
+
+    /**
+     * Returns the number of permutations (multinomial coefficient).
+     *
+     * @return number of permutations
+     * @throws ArithmeticException if the number of permutations cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
+    public long count() {
+        if (empty()) {
+            return 0;
+        }
+
+        long count = 1;
+        int length = 0;
+        for (final int multiplicity : multiplicities) {
+            for (int i = 1; i <= multiplicity; i++) {
+                length++;
+                count = Math.addExact(Math.multiplyExact(count / i, length), count % i * length / i);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of permutations as {@code BigInteger}.
+     *
+     * @return number of permutations
+     */
+    public BigInteger countExact() {
+        if (empty()) {
+            return BigInteger.ZERO;
+        }
+
+        BigInteger count = factorialExact(n);
+        for (final int multiplicity : multiplicities) {
+            count = count.divide(factorialExact(multiplicity));
+        }
+        return count;
+    }
+
+    /**
+     * Returns position of the permutation in lexicographic order (the order in which permutations are enumerated).
+     *
+     * @param permutation index array of the permutation
+     * @return position of the permutation ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code permutation} is not one of enumerated permutations
+     */
+    public long rank(int[] permutation) {
+        checkPermutation(permutation);
+        final int[] remaining = multiplicities.clone();
+        long total = count();
+        long rank = 0;
+        for (int i = 0; i < n; i++) {
+            for (int element = 0; element < permutation[i]; element++) {
+                rank += startingWith(total, remaining[element], n - i);
+            }
+            total = startingWith(total, remaining[permutation[i]]--, n - i);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns index array of the permutation at given position of lexicographic order (the order in which
+     * permutations are enumerated).
+     *
+     * @param rank position of the permutation
+     * @return index array of the permutation
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public int[] unrank(long rank) {
+        return unrank(rank, new int[n]);
+    }
+
+    /**
+     * Stores index array of the permutation at given position of lexicographic order in {@code permutation}.
+     *
+     * @param rank        position of the permutation
+     * @param permutation array of length {@code n} where index array of the permutation is stored
+     * @return {@code permutation}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()} or length of
+     *                                  {@code permutation} is not equal to {@code n}
+     */
+    public int[] unrank(long rank, int[] permutation) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(permutation);
+
+        final int[] remaining = multiplicities.clone();
+        long total = count();
+        for (int i = 0; i < n; i++) {
+            int element = 0;
+            long block = startingWith(total, remaining[element], n - i);
+            while (rank >= block) {
+                rank -= block;
+                block = startingWith(total, remaining[++element], n - i);
+            }
+            permutation[i] = element;
+            remaining[element]--;
+            total = block;
+        }
+        return permutation;
+    }
+
+    /**
+     * Returns position of the permutation in lexicographic order as {@code BigInteger}.
+     *
+     * @param permutation index array of the permutation
+     * @return position of the permutation ({@code 0 <= rank < countExact()})
+     * @throws IllegalArgumentException if {@code permutation} is not one of enumerated permutations
+     */
+    public BigInteger rankExact(int[] permutation) {
+        checkPermutation(permutation);
+        final int[] remaining = multiplicities.clone();
+        BigInteger total = countExact();
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < n; i++) {
+            for (int element = 0; element < permutation[i]; element++) {
+                rank = rank.add(startingWith(total, remaining[element], n - i));
+            }
+            total = startingWith(total, remaining[permutation[i]]--, n - i);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns index array of the permutation at given position of lexicographic order.
+     *
+     * @param rank position of the permutation
+     * @return index array of the permutation
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()}
+     */
+    public int[] unrank(BigInteger rank) {
+        return unrank(rank, new int[n]);
+    }
+
+    /**
+     * Stores index array of the permutation at given position of lexicographic order in {@code permutation}.
+     *
+     * @param rank        position of the permutation
+     * @param permutation array of length {@code n} where index array of the permutation is stored
+     * @return {@code permutation}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()} or length of
+     *                                  {@code permutation} is not equal to {@code n}
+     */
+    public int[] unrank(BigInteger rank, int[] permutation) {
+        if (rank == null || rank.signum() < 0 || rank.compareTo(countExact()) >= 0) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(permutation);
+
+        final int[] remaining = multiplicities.clone();
+        BigInteger total = countExact();
+        for (int i = 0; i < n; i++) {
+            int element = 0;
+            BigInteger block = startingWith(total, remaining[element], n - i);
+            while (rank.compareTo(block) >= 0) {
+                rank = rank.subtract(block);
+                block = startingWith(total, remaining[++element], n - i);
+            }
+            permutation[i] = element;
+            remaining[element]--;
+            total = block;
+        }
+        return permutation;
+    }
+
+    /**
+     * Returns a sequential {@code Stream} with all permutations of this as its source.
+     *
+     * @return sequential {@code Stream} over all permutations
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} with all permutations of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all permutations
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over permutations of type {@code T}.
+     *
+     * <p>
+     * The {@code Spliterator} knows its exact size and splits the range of ranks in half. If the number of
+     * permutations cannot be represented as long, the {@code Spliterator} falls back to sequential traversal of
+     * {@link #iterator()}.
+     * </p>
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        if (countExact().bitLength() >= Long.SIZE) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return new RankSpliterator<>(count(), n, this::unrank, PermutationsWithoutRepetition::advance,
+                permutationsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each permutation (in lexicographic order), until all permutations
+     * have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)} this method neither applies {@code permutationsVisitor} nor allocates anything
+     * per permutation: the action is given the live index array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each permutation
+     * @return {@code true} if all permutations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = firstIndex();
+        do {
+            if (!action.accept(index)) {
+                return false;
+            }
+        } while (PermutationsWithoutRepetition.advance(index) >= 0);
+        return true;
+    }
+
+    /**
+     * Returns an iterator over permutations of type {@code T}.
+     *
+     * @return an {@code Iterator}
+     */
+    @Override
+    public TupleIterator<T> iterator() {
+        if (empty()) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(firstIndex(), n, index -> PermutationsWithoutRepetition.advance(index) >= 0,
+                permutationsVisitor);
+    }
+
+    private boolean empty() {
+        return n == 0;
+    }
+
+    private int[] firstIndex() {
+        final int[] index = new int[n];
+        for (int element = 0, i = 0; element < multiplicities.length; element++) {
+            for (int j = 0; j < multiplicities[element]; j++) {
+                index[i++] = element;
+            }
+        }
+        return index;
+    }
+
+    // Number of permutations starting with an element of given multiplicity, out of total permutations of given
+    // length, i.e. total * multiplicity / length (computed without overflow of the intermediate product)
+    private static long startingWith(long total, int multiplicity, int length) {
+        return total / length * multiplicity + total % length * multiplicity / length;
+    }
+
+    private static BigInteger startingWith(BigInteger total, int multiplicity, int length) {
+        return total.multiply(BigInteger.valueOf(multiplicity)).divide(BigInteger.valueOf(length));
+    }
+
+    private void checkPermutation(int[] permutation) {
+        checkLength(permutation);
+        final int[] remaining = multiplicities.clone();
+        for (final int element : permutation) {
+            if (element < 0 || element >= remaining.length || remaining[element]-- == 0) {
+                throw new IllegalArgumentException("permutation must be an arrangement of the multiset");
+            }
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    private void checkLength(int[] permutation) {
+        if (permutation == null || permutation.length != n) {
+            throw new IllegalArgumentException("permutation must be an array of length n");
+        }
+    }
+}
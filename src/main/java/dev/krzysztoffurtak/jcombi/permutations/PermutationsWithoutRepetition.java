@@ -21,14 +21,27 @@
  */
 package dev.krzysztoffurtak.jcombi.permutations;
 
-import java.util.Iterator;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.LehmerCode;
+import dev.krzysztoffurtak.jcombi.PrefixEnumeration;
+import dev.krzysztoffurtak.jcombi.PrefixPredicate;
+import dev.krzysztoffurtak.jcombi.PrefixVisitor;
+import dev.krzysztoffurtak.jcombi.RankSpliterator;
+import dev.krzysztoffurtak.jcombi.SwapVisitor;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static dev.krzysztoffurtak.jcombi.Combinatorics.factorial;
-import static java.util.Collections.emptyIterator;
+import static dev.krzysztoffurtak.jcombi.Combinatorics.factorialExact;
 
 public class PermutationsWithoutRepetition<T> implements Iterable<T> {
     private final int n;
@@ -55,9 +68,134 @@ public class PermutationsWithoutRepetition<T> implements Iterable<T> {
         return n;
     }
 
+    /**
+     * Returns the number of permutations.
+     *
+     * @return number of permutations
+     * @throws ArithmeticException if the number of permutations cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
     public long count() {
         return empty() ? 0 : factorial(n);
     }
+
+    /**
+     * Returns the number of permutations as {@code BigInteger}.
+     *
+     * @return number of permutations
+     */
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : factorialExact(n);
+    }
+
+    /**
+     * Returns position of the permutation in lexicographic order (the order in which permutations are enumerated).
+     *
+     * <p>
+     * The position is computed from Lehmer code of the permutation.
+     * </p>
+     *
+     * @param permutation index array of the permutation
+     * @return position of the permutation ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code permutation} is not one of enumerated permutations
+     */
+    public long rank(int[] permutation) {
+        final int[] digits = digits(permutation);
+        long rank = 0;
+        for (int i = 0; i < n; i++) {
+            rank = Math.addExact(Math.multiplyExact(rank, n - i), digits[i]);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns index array of the permutation at given position of lexicographic order (the order in which
+     * permutations are enumerated).
+     *
+     * @param rank position of the permutation
+     * @return index array of the permutation
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public int[] unrank(long rank) {
+        return unrank(rank, new int[n]);
+    }
+
+    /**
+     * Stores index array of the permutation at given position of lexicographic order in {@code permutation}.
+     *
+     * @param rank        position of the permutation
+     * @param permutation array of length {@code n} where index array of the permutation is stored
+     * @return {@code permutation}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()} or length of
+     *                                  {@code permutation} is not equal to {@code n}
+     */
+    public int[] unrank(long rank, int[] permutation) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(permutation);
+
+        final int[] digits = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            digits[i] = (int) (rank % (n - i));
+            rank /= n - i;
+        }
+        LehmerCode.decode(n, digits, permutation);
+        return permutation;
+    }
+
+    /**
+     * Returns position of the permutation in lexicographic order as {@code BigInteger}.
+     *
+     * @param permutation index array of the permutation
+     * @return position of the permutation ({@code 0 <= rank < countExact()})
+     * @throws IllegalArgumentException if {@code permutation} is not one of enumerated permutations
+     */
+    public BigInteger rankExact(int[] permutation) {
+        final int[] digits = digits(permutation);
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < n; i++) {
+            rank = rank.multiply(BigInteger.valueOf(n - i)).add(BigInteger.valueOf(digits[i]));
+        }
+        return rank;
+    }
+
+    /**
+     * Returns index array of the permutation at given position of lexicographic order.
+     *
+     * @param rank position of the permutation
+     * @return index array of the permutation
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()}
+     */
+    public int[] unrank(BigInteger rank) {
+        return unrank(rank, new int[n]);
+    }
+
+    /**
+     * Stores index array of the permutation at given position of lexicographic order in {@code permutation}.
+     *
+     * @param rank        position of the permutation
+     * @param permutation array of length {@code n} where index array of the permutation is stored
+     * @return {@code permutation}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()} or length of
+     *                                  {@code permutation} is not equal to {@code n}
+     */
+    public int[] unrank(BigInteger rank, int[] permutation) {
+        if (rank == null || rank.signum() < 0 || rank.compareTo(countExact()) >= 0) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        checkLength(permutation);
+
+        final int[] digits = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            final BigInteger[] quotientAndRemainder = rank.divideAndRemainder(BigInteger.valueOf(n - i));
+            digits[i] = quotientAndRemainder[1].intValue();
+            rank = quotientAndRemainder[0];
+        }
+        LehmerCode.decode(n, digits, permutation);
+        return permutation;
+    }
+
     /**
      * Returns a sequential {@code Stream} with all permutations of this as its source.
      *
@@ -67,59 +205,257 @@ public class PermutationsWithoutRepetition<T> implements Iterable<T> {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * Returns a possibly parallel {@code Stream} with all permutations of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all permutations
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over permutations of type {@code T}.
+     *
+     * <p>
+     * The {@code Spliterator} knows its exact size and splits the range of ranks in half (the first permutation of
+     * the suffix is unranked from its Lehmer code), so that parallel streams scale with the number of available cores.
+     * If the number of permutations cannot be represented as long, the {@code Spliterator} falls back to sequential
+     * traversal of {@link #iterator()}.
+     * </p>
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        if (countExact().bitLength() >= Long.SIZE) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return new RankSpliterator<>(count(), n, this::unrank, PermutationsWithoutRepetition::advance,
+                permutationsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each permutation (in lexicographic order), until all permutations have been
+     * processed or the action returns {@code false}.
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)} this method neither applies {@code permutationsVisitor} nor allocates anything per
+     * permutation: the action is given the live index array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each permutation
+     * @return {@code true} if all permutations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = IntStream.range(0, n).toArray();
+        do {
+            if (!action.accept(index)) {
+                return false;
+            }
+        } while (advance(index) >= 0);
+        return true;
+    }
+
+    /**
+     * Performs given action for index array of each permutation (in lexicographic order) accepted by given prefix filter,
+     * until all permutations have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * All permutations starting with a prefix rejected by the filter are skipped without being generated (see
+     * {@link PrefixEnumeration#forEachIndices(int[], int, PrefixEnumeration.Successor, PrefixEnumeration.Skip,
+     * PrefixPredicate, IntArrayConsumer)}).
+     * </p>
+     *
+     * @param filter filter of prefixes
+     * @param action action to be performed for index array of each accepted permutation
+     * @return {@code true} if all permutations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(PrefixPredicate filter, IntArrayConsumer action) {
+        if (filter == null) {
+            throw new IllegalArgumentException("filter cannot be null");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        return empty() || PrefixEnumeration.forEachIndices(IntStream.range(0, n).toArray(), n,
+                PermutationsWithoutRepetition::advance, this::skip, filter, action);
+    }
+
+    /**
+     * Folds index arrays of all permutations (in lexicographic order) with given visitor, until all permutations have been
+     * processed or the visitor returns {@code false}.
+     *
+     * <p>
+     * The visitor is pushed and popped only for positions from the first changed one onward (see
+     * {@link PrefixEnumeration#foldIndices(int[], int, PrefixEnumeration.Successor, PrefixVisitor)}).
+     * </p>
+     *
+     * @param visitor visitor to be given indexes of each permutation
+     * @return {@code true} if all permutations have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean foldIndices(PrefixVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        return empty() || PrefixEnumeration.foldIndices(IntStream.range(0, n).toArray(), n,
+                PermutationsWithoutRepetition::advance, visitor);
+    }
+
+    /**
+     * Performs given action for index array of each permutation in plain changes (Steinhaus-Johnson-Trotter) order,
+     * until all permutations have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * In plain changes order every two consecutive permutations differ by a single transposition of adjacent
+     * elements. Like {@link #forEachIndices(IntArrayConsumer)} the action is given the live index array, which is
+     * modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each permutation
+     * @return {@code true} if all permutations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndicesInPlainChangesOrder(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        return plainChanges(action, (i, j) -> true);
+    }
+
+    /**
+     * Enumerates permutations in plain changes (Steinhaus-Johnson-Trotter) order and notifies given visitor of each
+     * step as a pair of swapped positions {@code onSwap(i, i + 1)}.
+     *
+     * <p>
+     * The enumeration starts with identity permutation (which is not reported) and the visitor is notified
+     * {@code count() - 1} times, so e.g. a cost of a tour can be updated in constant time per permutation instead of
+     * being recomputed for all {@code n} elements.
+     * </p>
+     *
+     * @param visitor visitor to be notified of each step
+     * @return {@code true} if all permutations have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean forEachSwap(SwapVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        return plainChanges(index -> true, visitor);
+    }
+
     /**
      * Returns an iterator over permutations of type {@code T}.
      *
      * @return an {@code Iterator}
      */
     @Override
-    public Iterator<T> iterator() {
-        return empty() ? emptyIterator() : new Iter();
+    public TupleIterator<T> iterator() {
+        return empty()
+                ? TupleIterator.empty()
+                : new TupleIterator<>(IntStream.range(0, n).toArray(), n, index -> advance(index) >= 0,
+                        permutationsVisitor);
     }
 
     private boolean empty() {
         return n == 0;
     }
 
-    private class Iter implements Iterator<T> {
-        private final int[] index = IntStream.range(0, n).toArray();
-        private boolean nextAvailable = true;
+    private int[] digits(int[] permutation) {
+        checkLength(permutation);
+        final int[] digits = new int[n];
+        if (!LehmerCode.encode(n, permutation, digits)) {
+            throw new IllegalArgumentException("permutation must consist of distinct indexes less than n");
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        return digits;
+    }
+
+    private void checkLength(int[] permutation) {
+        if (permutation == null || permutation.length != n) {
+            throw new IllegalArgumentException("permutation must be an array of length n");
+        }
+    }
 
-        @Override
-        public boolean hasNext() {
-            return nextAvailable;
+    static int advance(int[] index) {
+        final int n = index.length;
+        int i = n - 1;
+        while (i > 0 && index[i - 1] >= index[i]) {
+            i--;
         }
 
-        @Override
-        public T next() {
-            final T permutation = permutationsVisitor.apply(index);
+        if (i <= 0) {
+            return -1;
+        }
 
-            int i = n - 1;
-            while (i > 0 && index[i - 1] >= index[i]) {
-                i--;
-            }
+        final int changed = i - 1;
+        int j = n;
+        while (index[j - 1] <= index[i - 1]) {
+            j--;
+        }
 
-            if (i > 0) {
-                int j = n;
-                while (index[j - 1] <= index[i - 1]) {
-                    j--;
-                }
+        swap(index, i - 1, j - 1);
 
-                swap(index, i - 1, j - 1);
+        i++;
+        j = n;
+        while (i < j) {
+            swap(index, i - 1, j - 1);
+            i++;
+            j--;
+        }
 
-                i++;
-                j = n;
-                while (i < j) {
-                    swap(index, i - 1, j - 1);
-                    i++;
-                    j--;
+        return changed;
+    }
+
+    // Algorithm P (plain changes) from "The Art of Computer Programming", Vol. 4A, 7.2.1.2
+    private boolean plainChanges(IntArrayConsumer action, SwapVisitor visitor) {
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = IntStream.range(0, n).toArray();
+        final int[] inversions = new int[n + 1];
+        final int[] directions = new int[n + 1];
+        Arrays.fill(directions, 1);
+        while (action.accept(index)) {
+            int j = n;
+            int shift = 0;
+            int q = inversions[j] + directions[j];
+            while (q < 0 || q == j) {
+                if (q == j) {
+                    if (j == 1) {
+                        return true;
+                    }
+                    shift++;
                 }
-            } else {
-                nextAvailable = false;
+                directions[j] = -directions[j];
+                j--;
+                q = inversions[j] + directions[j];
             }
 
-            return permutation;
+            final int first = j - inversions[j] + shift - 1;
+            final int second = j - q + shift - 1;
+            swap(index, first, second);
+            inversions[j] = q;
+            if (!visitor.onSwap(Math.min(first, second), Math.max(first, second))) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private int skip(int[] index, int depth) {
+        for (int i = depth + 1, j = n - 1; i < j; i++, j--) {
+            swap(index, i, j);
         }
+        return advance(index);
     }
 
     private static void swap(int[] array, int i, int j) {
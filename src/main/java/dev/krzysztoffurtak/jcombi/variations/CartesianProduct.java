@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.variations;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Cartesian product of ranges of different sizes, in which {@code i}-th position of each tuple draws from
+ * {@code radices[i]} elements.
+ *
+ * <p>
+ * Tuples are index arrays of length {@code k = radices.length} enumerated in lexicographic order, i.e. as a
+ * mixed-radix odometer in which the last position changes fastest. {@link #n()} is the largest radix.
+ * </p>
+ *
+ * @param <T> type of tuples
+ */
+public class CartesianProduct<T> extends Variations<T> {
+    private final int[] radices;
+
+    public CartesianProduct(int[] radices, Function<int[], T> variationsVisitor) {
+        super(max(radices), radices.length, variationsVisitor);
+        this.radices = radices.clone();
+    }
+
+    /**
+     * Returns the number of elements each position of a tuple draws from.
+     *
+     * @return radices of positions
+     */
+    public int[] radices() {
+        return radices.clone();
+    }
+
+    @Override
+    public long count() {
+        if (empty()) {
+            return 0;
+        }
+
+        long count = 1;
+        for (final int radix : radices) {
+            count = Math.multiplyExact(count, radix);
+        }
+        return count;
+    }
+
+    @Override
+    public BigInteger countExact() {
+        if (empty()) {
+            return BigInteger.ZERO;
+        }
+
+        BigInteger count = BigInteger.ONE;
+        for (final int radix : radices) {
+            count = count.multiply(BigInteger.valueOf(radix));
+        }
+        return count;
+    }
+
+    @Override
+    public long rank(int[] variation) {
+        checkVariation(variation);
+        long rank = 0;
+        for (int i = 0; i < k; i++) {
+            rank = Math.addExact(Math.multiplyExact(rank, radices[i]), variation[i]);
+        }
+        return rank;
+    }
+
+    @Override
+    public int[] unrank(long rank, int[] variation) {
+        checkRank(rank);
+        checkLength(variation);
+        for (int i = k - 1; i >= 0; i--) {
+            variation[i] = (int) (rank % radices[i]);
+            rank /= radices[i];
+        }
+        return variation;
+    }
+
+    @Override
+    public BigInteger rankExact(int[] variation) {
+        checkVariation(variation);
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < k; i++) {
+            rank = rank.multiply(BigInteger.valueOf(radices[i])).add(BigInteger.valueOf(variation[i]));
+        }
+        return rank;
+    }
+
+    @Override
+    public int[] unrank(BigInteger rank, int[] variation) {
+        checkRank(rank);
+        checkLength(variation);
+        for (int i = k - 1; i >= 0; i--) {
+            final BigInteger[] quotientAndRemainder = rank.divideAndRemainder(BigInteger.valueOf(radices[i]));
+            variation[i] = quotientAndRemainder[1].intValue();
+            rank = quotientAndRemainder[0];
+        }
+        return variation;
+    }
+
+    @Override
+    protected boolean empty() {
+        return super.empty() || Arrays.stream(radices).anyMatch(radix -> radix == 0);
+    }
+
+    @Override
+    protected int[] firstIndex() {
+        return new int[k];
+    }
+
+    @Override
+    protected int advance(int[] index) {
+        return advance(index, radices);
+    }
+
+    @Override
+    protected int skip(int[] index, int depth) {
+        for (int i = depth + 1; i < k; i++) {
+            index[i] = radices[i] - 1;
+        }
+        return advance(index);
+    }
+
+    /**
+     * Advances mixed-radix odometer (in place) to the next tuple in lexicographic order. Shared with
+     * {@link VariationsWithRepetition}, which is the product of {@code k} ranges of the same size.
+     *
+     * @param index   index array of the tuple
+     * @param radices radices of positions
+     * @return position of the first changed index, or {@code -1} if it was the last tuple
+     */
+    static int advance(int[] index, int[] radices) {
+        int i = radices.length - 1;
+
+        while (i >= 0 && index[i] == radices[i] - 1) {
+            i--;
+        }
+
+        if (i < 0) {
+            return -1;
+        }
+
+        final int changed = i;
+        index[i]++;
+        for (i++; i < radices.length; i++) {
+            index[i] = 0;
+        }
+
+        return changed;
+    }
+
+    private void checkVariation(int[] variation) {
+        checkLength(variation);
+        for (int i = 0; i < k; i++) {
+            if (variation[i] < 0 || variation[i] >= radices[i]) {
+                throw new IllegalArgumentException("variation must consist of indexes less than respective radices");
+            }
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    private static int max(int[] radices) {
+        if (radices == null) {
+            throw new IllegalArgumentException("radices cannot be null");
+        }
+        int max = 0;
+        for (final int radix : radices) {
+            if (radix < 0) {
+                throw new IllegalArgumentException("radices must be greater or equal to zero");
+            }
+            max = Math.max(max, radix);
+        }
+        return max;
+    }
+}
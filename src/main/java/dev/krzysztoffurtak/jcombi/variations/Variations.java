@@ -21,13 +21,21 @@
  */
 package dev.krzysztoffurtak.jcombi.variations;
 
-import java.util.Iterator;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+import dev.krzysztoffurtak.jcombi.PrefixEnumeration;
+import dev.krzysztoffurtak.jcombi.PrefixPredicate;
+import dev.krzysztoffurtak.jcombi.PrefixVisitor;
+import dev.krzysztoffurtak.jcombi.RankSpliterator;
+import dev.krzysztoffurtak.jcombi.TupleIterator;
+
+import java.math.BigInteger;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import static java.util.Collections.emptyIterator;
-
 public abstract class Variations<T> implements Iterable<T> {
     protected final int n;
     protected final int k;
@@ -67,8 +75,85 @@ public abstract class Variations<T> implements Iterable<T> {
         return k;
     }
 
+    /**
+     * Returns the number of variations.
+     *
+     * @return number of variations
+     * @throws ArithmeticException if the number of variations cannot be represented as long (use
+     *                             {@link #countExact()} instead)
+     */
     public abstract long count();
 
+    /**
+     * Returns the number of variations as {@code BigInteger}.
+     *
+     * @return number of variations
+     */
+    public abstract BigInteger countExact();
+
+    /**
+     * Returns position of the variation in lexicographic order (the order in which variations are enumerated).
+     *
+     * @param variation index array of the variation
+     * @return position of the variation ({@code 0 <= rank < count()})
+     * @throws IllegalArgumentException if {@code variation} is not one of enumerated variations
+     */
+    public abstract long rank(int[] variation);
+
+    /**
+     * Returns index array of the variation at given position of lexicographic order (the order in which
+     * variations are enumerated).
+     *
+     * @param rank position of the variation
+     * @return index array of the variation
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()}
+     */
+    public int[] unrank(long rank) {
+        return unrank(rank, new int[k]);
+    }
+
+    /**
+     * Stores index array of the variation at given position of lexicographic order in {@code variation}.
+     *
+     * @param rank      position of the variation
+     * @param variation array of length {@code k} where index array of the variation is stored
+     * @return {@code variation}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= count()} or length of
+     *                                  {@code variation} is not equal to {@code k}
+     */
+    public abstract int[] unrank(long rank, int[] variation);
+
+    /**
+     * Returns position of the variation in lexicographic order as {@code BigInteger}.
+     *
+     * @param variation index array of the variation
+     * @return position of the variation ({@code 0 <= rank < countExact()})
+     * @throws IllegalArgumentException if {@code variation} is not one of enumerated variations
+     */
+    public abstract BigInteger rankExact(int[] variation);
+
+    /**
+     * Returns index array of the variation at given position of lexicographic order.
+     *
+     * @param rank position of the variation
+     * @return index array of the variation
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()}
+     */
+    public int[] unrank(BigInteger rank) {
+        return unrank(rank, new int[k]);
+    }
+
+    /**
+     * Stores index array of the variation at given position of lexicographic order in {@code variation}.
+     *
+     * @param rank      position of the variation
+     * @param variation array of length {@code k} where index array of the variation is stored
+     * @return {@code variation}
+     * @throws IllegalArgumentException if {@code rank < 0} or {@code rank >= countExact()} or length of
+     *                                  {@code variation} is not equal to {@code k}
+     */
+    public abstract int[] unrank(BigInteger rank, int[] variation);
+
     /**
      * Returns a sequential {@code Stream} with all variations of this as its source.
      *
@@ -78,19 +163,182 @@ public abstract class Variations<T> implements Iterable<T> {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * Returns a possibly parallel {@code Stream} with all variations of this as its source.
+     *
+     * @return possibly parallel {@code Stream} over all variations
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over variations of type {@code T}.
+     *
+     * <p>
+     * The {@code Spliterator} knows its exact size and splits the range of ranks in half, so that parallel streams
+     * scale with the number of available cores. If the number of variations cannot be represented as long,
+     * the {@code Spliterator} falls back to sequential traversal of {@link #iterator()}.
+     * </p>
+     *
+     * @return a {@code Spliterator}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        if (countExact().bitLength() >= Long.SIZE) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return new RankSpliterator<>(count(), k, this::newIndex, this::advance, variationsVisitor);
+    }
+
+    /**
+     * Performs given action for index array of each variation (in lexicographic order), until all variations have been
+     * processed or the action returns {@code false}.
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)} this method neither applies {@code variationsVisitor} nor allocates anything per
+     * variation: the action is given the live index array, which is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each variation
+     * @return {@code true} if all variations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = firstIndex();
+        final int[] variation = index.length == k ? index : new int[k];
+        int changed = 0;
+        do {
+            if (variation != index) {
+                System.arraycopy(index, changed, variation, changed, k - changed);
+            }
+            if (!action.accept(variation)) {
+                return false;
+            }
+            changed = advance(index);
+        } while (changed >= 0);
+        return true;
+    }
+
+    /**
+     * Performs given action for index array of each variation (in lexicographic order) accepted by given prefix filter,
+     * until all variations have been processed or the action returns {@code false}.
+     *
+     * <p>
+     * All variations starting with a prefix rejected by the filter are skipped without being generated (see
+     * {@link PrefixEnumeration#forEachIndices(int[], int, PrefixEnumeration.Successor, PrefixEnumeration.Skip,
+     * PrefixPredicate, IntArrayConsumer)}).
+     * </p>
+     *
+     * @param filter filter of prefixes
+     * @param action action to be performed for index array of each accepted variation
+     * @return {@code true} if all variations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndices(PrefixPredicate filter, IntArrayConsumer action) {
+        if (filter == null) {
+            throw new IllegalArgumentException("filter cannot be null");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        return empty() || PrefixEnumeration.forEachIndices(firstIndex(), k, this::advance, this::skip, filter, action);
+    }
+
+    /**
+     * Folds index arrays of all variations (in lexicographic order) with given visitor, until all variations have been
+     * processed or the visitor returns {@code false}.
+     *
+     * <p>
+     * The visitor is pushed and popped only for positions from the first changed one onward (see
+     * {@link PrefixEnumeration#foldIndices(int[], int, PrefixEnumeration.Successor, PrefixVisitor)}).
+     * </p>
+     *
+     * @param visitor visitor to be given indexes of each variation
+     * @return {@code true} if all variations have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean foldIndices(PrefixVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        return empty() || PrefixEnumeration.foldIndices(firstIndex(), k, this::advance, visitor);
+    }
+
     /**
      * Returns an iterator over variations of type {@code T}.
      *
      * @return an {@code Iterator}
      */
     @Override
-    public Iterator<T> iterator() {
-        return empty() ? emptyIterator() : newIterator();
+    public TupleIterator<T> iterator() {
+        if (empty()) {
+            return TupleIterator.empty();
+        }
+        return new TupleIterator<>(firstIndex(), k, index -> advance(index) >= 0, variationsVisitor);
     }
 
     protected boolean empty() {
         return n == 0 || k == 0;
     }
 
-    protected abstract Iterator<T> newIterator();
+    /**
+     * Returns index array (in the form processed by {@link #advance(int[])}) of the variation at given position of
+     * lexicographic order.
+     *
+     * @param rank position of the variation ({@code 0 <= rank < count()})
+     * @return index array of the variation
+     */
+    protected int[] newIndex(long rank) {
+        return unrank(rank);
+    }
+
+    protected void checkRank(long rank) {
+        if (rank < 0 || rank >= count()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    protected void checkRank(BigInteger rank) {
+        if (rank == null || rank.signum() < 0 || rank.compareTo(countExact()) >= 0) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+    }
+
+    protected void checkLength(int[] variation) {
+        if (variation == null || variation.length != k) {
+            throw new IllegalArgumentException("variation must be an array of length k");
+        }
+    }
+
+    /**
+     * Returns index array (in the form processed by {@link #advance(int[])}) of the first variation in lexicographic
+     * order.
+     *
+     * @return index array of the first variation
+     */
+    protected abstract int[] firstIndex();
+
+    /**
+     * Advances index array (in place) to the next variation in lexicographic order.
+     *
+     * @param index index array of the variation
+     * @return position of the first changed index, or {@code -1} if it was the last variation
+     */
+    protected abstract int advance(int[] index);
+
+    /**
+     * Advances index array (in place) past all variations sharing its prefix of length {@code depth + 1}, to the next
+     * variation in lexicographic order. Positions after {@code depth} are expected to be in their lexicographically
+     * smallest arrangement (as left by {@link #advance(int[])}).
+     *
+     * @param index index array of the variation
+     * @param depth last position of the prefix to be skipped
+     * @return position of the first changed index, or {@code -1} if there are no more variations
+     */
+    protected abstract int skip(int[] index, int depth);
 }
@@ -22,7 +22,10 @@
 package dev.krzysztoffurtak.jcombi.variations;
 
 import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.TupleView;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public interface VariationsBuilder<T> extends InputSetBuilder<T, VariationsBuilder.Builder<T>> {
@@ -30,12 +33,48 @@ public interface VariationsBuilder<T> extends InputSetBuilder<T, VariationsBuild
         VariationsWithoutRepetition<List<T>> choose(int k);
     }
 
+    interface ViewBuilder<T> {
+        VariationsWithoutRepetition<TupleView<T>> choose(int k);
+    }
+
     static VariationsWithoutRepetition<int[]> build(int n, int k) {
         return new VariationsWithoutRepetition<>(n, k, InputSetBuilder.sequenceFromIndexes());
     }
 
+    static CartesianProduct<int[]> build(int[] radices) {
+        return new CartesianProduct<>(radices, InputSetBuilder.sequenceFromIndexes());
+    }
+
+    /**
+     * Returns Cartesian product of given lists, i.e. all tuples whose {@code i}-th element is taken from
+     * {@code i}-th list.
+     *
+     * @param lists lists the elements of tuples are taken from
+     * @param <T>   type of elements
+     * @return Cartesian product of lists
+     */
+    static <T> CartesianProduct<List<T>> product(List<? extends List<? extends T>> lists) {
+        if (lists == null) {
+            throw new IllegalArgumentException("lists cannot be null");
+        }
+        final List<List<? extends T>> inputSets = List.copyOf(lists);
+        return new CartesianProduct<>(inputSets.stream().mapToInt(List::size).toArray(), index -> {
+            @SuppressWarnings("unchecked")
+            final T[] elements = (T[]) new Object[index.length];
+            for (int i = 0; i < index.length; i++) {
+                elements[i] = inputSets.get(i).get(index[i]);
+            }
+            return Collections.unmodifiableList(Arrays.asList(elements));
+        });
+    }
+
     static <T> VariationsBuilder<T> builder() {
         return inputSet -> (Builder<T>) k -> new VariationsWithoutRepetition<>(
                 inputSet.size(), k, InputSetBuilder.sequenceFromInputSet(inputSet));
     }
+
+    static <T> InputSetBuilder<T, ViewBuilder<T>> viewBuilder() {
+        return inputSet -> (ViewBuilder<T>) k -> new VariationsWithoutRepetition<>(
+                inputSet.size(), k, InputSetBuilder.sequenceViewFromInputSet(inputSet));
+    }
 }
@@ -21,13 +21,22 @@
  */
 package dev.krzysztoffurtak.jcombi.variations;
 
-import java.util.Iterator;
+import dev.krzysztoffurtak.jcombi.ChangeVisitor;
+import dev.krzysztoffurtak.jcombi.IntArrayConsumer;
+
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
 public class VariationsWithRepetition<T> extends Variations<T> {
+    // every position draws from n elements, so variations are the Cartesian product of k ranges of size n
+    private final int[] radices;
+
     public VariationsWithRepetition(int n, int k, Function<int[], T> variationsVisitor) {
         super(n, k, variationsVisitor);
+        this.radices = new int[k];
+        Arrays.fill(radices, n);
     }
 
     public VariationsWithoutRepetition<T> withoutRepetition() {
@@ -40,49 +49,166 @@ public class VariationsWithRepetition<T> extends Variations<T> {
     }
 
     @Override
-    protected Iterator<T> newIterator() {
-        return new Iter();
+    public BigInteger countExact() {
+        return empty() ? BigInteger.ZERO : BigInteger.valueOf(n).pow(k);
+    }
+
+    @Override
+    public long rank(int[] variation) {
+        checkVariation(variation);
+        long rank = 0;
+        for (int i = 0; i < k; i++) {
+            rank = Math.addExact(Math.multiplyExact(rank, n), variation[i]);
+        }
+        return rank;
+    }
+
+    @Override
+    public int[] unrank(long rank, int[] variation) {
+        checkRank(rank);
+        checkLength(variation);
+        for (int i = k - 1; i >= 0; i--) {
+            variation[i] = (int) (rank % n);
+            rank /= n;
+        }
+        return variation;
     }
 
-    private class Iter implements Iterator<T> {
-        private final int[] index = IntStream.range(0, k).map(i -> 0).toArray();
-        private boolean nextAvailable = true;
+    @Override
+    public BigInteger rankExact(int[] variation) {
+        checkVariation(variation);
+        final BigInteger radix = BigInteger.valueOf(n);
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < k; i++) {
+            rank = rank.multiply(radix).add(BigInteger.valueOf(variation[i]));
+        }
+        return rank;
+    }
 
-        @Override
-        public boolean hasNext() {
-            return nextAvailable;
+    @Override
+    public int[] unrank(BigInteger rank, int[] variation) {
+        checkRank(rank);
+        checkLength(variation);
+        final BigInteger radix = BigInteger.valueOf(n);
+        for (int i = k - 1; i >= 0; i--) {
+            final BigInteger[] quotientAndRemainder = rank.divideAndRemainder(radix);
+            variation[i] = quotientAndRemainder[1].intValue();
+            rank = quotientAndRemainder[0];
         }
+        return variation;
+    }
 
-        @Override
-        public T next() {
-            final T variation = variationsVisitor.apply(index);
-            int i = k - 1;
+    /**
+     * Performs given action for index array of each variation in reflected Gray code order, until all variations have
+     * been processed or the action returns {@code false}.
+     *
+     * <p>
+     * In reflected Gray code order every two consecutive variations differ at exactly one position, whose value
+     * changes by one. Like {@link #forEachIndices(IntArrayConsumer)} the action is given the live index array, which
+     * is modified in place once the action returns.
+     * </p>
+     *
+     * @param action action to be performed for index array of each variation
+     * @return {@code true} if all variations have been processed, {@code false} if the action stopped the iteration
+     */
+    public boolean forEachIndicesInGrayCodeOrder(IntArrayConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        return grayCode(action, (position, oldValue, newValue) -> true);
+    }
 
-            while (i >= 0 && indexAt(i) == indexAt(i + 1)) {
-                i--;
-            }
+    /**
+     * Enumerates variations in reflected Gray code order and notifies given visitor of each step as
+     * {@code onChange(position, oldValue, newValue)}, where {@code newValue} is {@code oldValue + 1} or
+     * {@code oldValue - 1}.
+     *
+     * <p>
+     * The enumeration starts with variation {@code {0, 0, ..., 0}} (which is not reported) and the visitor is notified
+     * {@code count() - 1} times. Like in lexicographic order, the last position changes most often.
+     * </p>
+     *
+     * @param visitor visitor to be notified of each step
+     * @return {@code true} if all variations have been processed, {@code false} if the visitor stopped the iteration
+     */
+    public boolean forEachChange(ChangeVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        return grayCode(index -> true, visitor);
+    }
 
-            if (i >= 0) {
-                index[i]++;
-                for (; i < k - 1; i++) {
-                    index[i + 1] = 0;
-                }
-            } else {
-                nextAvailable = false;
+    @Override
+    protected int[] firstIndex() {
+        return new int[k];
+    }
+
+    @Override
+    protected int advance(int[] index) {
+        return CartesianProduct.advance(index, radices);
+    }
+
+    @Override
+    protected int skip(int[] index, int depth) {
+        for (int i = depth + 1; i < k; i++) {
+            index[i] = n - 1;
+        }
+        return advance(index);
+    }
+
+    // Algorithm H (loopless reflected mixed-radix Gray generation) from "The Art of Computer Programming", Vol. 4A,
+    // 7.2.1.1, with digit j of the algorithm stored at position k - 1 - j
+    private boolean grayCode(IntArrayConsumer action, ChangeVisitor visitor) {
+        if (empty()) {
+            return true;
+        }
+
+        final int[] index = firstIndex();
+        if (n == 1) {
+            return action.accept(index);
+        }
+
+        final int[] focus = IntStream.rangeClosed(0, k).toArray();
+        final int[] directions = new int[k];
+        Arrays.fill(directions, 1);
+        while (action.accept(index)) {
+            final int j = focus[0];
+            focus[0] = 0;
+            if (j == k) {
+                return true;
             }
 
-            return variation;
+            final int position = k - 1 - j;
+            final int oldValue = index[position];
+            index[position] += directions[j];
+            if (index[position] == 0 || index[position] == n - 1) {
+                directions[j] = -directions[j];
+                focus[j] = focus[j + 1];
+                focus[j + 1] = j + 1;
+            }
+            if (!visitor.onChange(position, oldValue, index[position])) {
+                return false;
+            }
         }
+        return false;
+    }
 
-        private int indexAt(int i) {
-            return i < k ? index[i] : n - 1;
+    private void checkVariation(int[] variation) {
+        checkLength(variation);
+        for (int i = 0; i < k; i++) {
+            if (variation[i] < 0 || variation[i] >= n) {
+                throw new IllegalArgumentException("variation must consist of indexes less than n");
+            }
+        }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
         }
     }
 
     private static long pow(long a, long b) {
         long value = 1;
         for (int i = 1; i <= b; i++) {
-            value *= a;
+            value = Math.multiplyExact(value, a);
         }
         return value;
     }
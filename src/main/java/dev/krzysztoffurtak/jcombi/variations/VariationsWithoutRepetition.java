@@ -21,13 +21,12 @@
  */
 package dev.krzysztoffurtak.jcombi.variations;
 
-import java.util.Arrays;
-import java.util.Iterator;
+import dev.krzysztoffurtak.jcombi.LehmerCode;
+
+import java.math.BigInteger;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
-import static dev.krzysztoffurtak.jcombi.Combinatorics.factorial;
-
 public class VariationsWithoutRepetition<T> extends Variations<T> {
 
     public VariationsWithoutRepetition(int n, int k, Function<int[], T> variationsVisitor) {
@@ -43,65 +42,148 @@ public class VariationsWithoutRepetition<T> extends Variations<T> {
 
     @Override
     public long count() {
-        return empty() ? 0 : factorial(n) / factorial(n - k);
+        if (empty()) {
+            return 0;
+        }
+
+        long count = 1;
+        for (int i = 0; i < k; i++) {
+            count = Math.multiplyExact(count, n - i);
+        }
+        return count;
+    }
+
+    @Override
+    public BigInteger countExact() {
+        if (empty()) {
+            return BigInteger.ZERO;
+        }
+
+        BigInteger count = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            count = count.multiply(BigInteger.valueOf(n - i));
+        }
+        return count;
+    }
+
+    @Override
+    public long rank(int[] variation) {
+        final int[] digits = encode(variation);
+        long rank = 0;
+        for (int i = 0; i < k; i++) {
+            rank = Math.addExact(Math.multiplyExact(rank, n - i), digits[i]);
+        }
+        return rank;
+    }
+
+    @Override
+    public int[] unrank(long rank, int[] variation) {
+        checkRank(rank);
+        checkLength(variation);
+        LehmerCode.decode(n, digits(rank), variation);
+        return variation;
+    }
+
+    @Override
+    public BigInteger rankExact(int[] variation) {
+        final int[] digits = encode(variation);
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < k; i++) {
+            rank = rank.multiply(BigInteger.valueOf(n - i)).add(BigInteger.valueOf(digits[i]));
+        }
+        return rank;
     }
 
     @Override
-    protected Iterator<T> newIterator() {
-        return new Iter();
+    public int[] unrank(BigInteger rank, int[] variation) {
+        checkRank(rank);
+        checkLength(variation);
+
+        final int[] digits = new int[k];
+        for (int i = k - 1; i >= 0; i--) {
+            final BigInteger[] quotientAndRemainder = rank.divideAndRemainder(BigInteger.valueOf(n - i));
+            digits[i] = quotientAndRemainder[1].intValue();
+            rank = quotientAndRemainder[0];
+        }
+        LehmerCode.decode(n, digits, variation);
+        return variation;
     }
 
-    private class Iter implements Iterator<T> {
-        private final int[] index = IntStream.range(0, n).toArray();
-        private boolean nextAvailable = true;
+    @Override
+    protected int[] newIndex(long rank) {
+        final int[] index = new int[n];
+        LehmerCode.decode(n, digits(rank), index);
+        return index;
+    }
 
-        Iter() {
+    private int[] encode(int[] variation) {
+        checkLength(variation);
+        final int[] digits = new int[k];
+        if (!LehmerCode.encode(n, variation, digits)) {
+            throw new IllegalArgumentException("variation must consist of distinct indexes less than n");
         }
+        if (empty()) {
+            throw new IllegalArgumentException("rank must be greater or equal to zero and less than count()");
+        }
+        return digits;
+    }
 
-        @Override
-        public boolean hasNext() {
-            return nextAvailable;
+    private int[] digits(long rank) {
+        final int[] digits = new int[k];
+        for (int i = k - 1; i >= 0; i--) {
+            digits[i] = (int) (rank % (n - i));
+            rank /= n - i;
         }
+        return digits;
+    }
 
-        @Override
-        public T next() {
-            // TODO: Get rid of Arrays.copyOf
-            final T variation = variationsVisitor.apply(Arrays.copyOf(index, k));
+    @Override
+    protected int[] firstIndex() {
+        return IntStream.range(0, n).toArray();
+    }
 
-            int tailmax = index[n - 1];
-            int end = k;
+    @Override
+    protected int advance(int[] index) {
+        int tailmax = index[n - 1];
+        int end = k;
 
-            while (end > 0 && index[end - 1] >= tailmax) {
-                tailmax = index[--end];
-            }
+        while (end > 0 && index[end - 1] >= tailmax) {
+            tailmax = index[--end];
+        }
 
-            if (end > 0) {
-                final int i = index[end - 1];
-                int j;
-
-                if (i >= index[n - 1]) {
-                    j = end;
-                    while (j + 1 < k && index[j + 1] > i) {
-                        j++;
-                    }
-                } else {
-                    j = n - 1;
-                    while (j > k && index[j - 1] > i) {
-                        j--;
-                    }
-                }
-
-                index[end - 1] = index[j];
-                index[j] = i;
-
-                flip(index, k, n);
-                flip(index, end, n);
-            } else {
-                nextAvailable = false;
-            }
+        if (end <= 0) {
+            return -1;
+        }
+
+        final int i = index[end - 1];
+        int j;
 
-            return variation;
+        if (i >= index[n - 1]) {
+            j = end;
+            while (j + 1 < k && index[j + 1] > i) {
+                j++;
+            }
+        } else {
+            j = n - 1;
+            while (j > k && index[j - 1] > i) {
+                j--;
+            }
         }
+
+        index[end - 1] = index[j];
+        index[j] = i;
+
+        flip(index, k, n);
+        flip(index, end, n);
+
+        return end - 1;
+    }
+
+    @Override
+    protected int skip(int[] index, int depth) {
+        flip(index, depth + 1, n);
+        flip(index, k, n);
+        return advance(index);
     }
 
     // TODO: Move it somewhere else
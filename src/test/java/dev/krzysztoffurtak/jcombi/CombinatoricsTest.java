@@ -35,8 +35,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.math.BigInteger;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -150,7 +152,9 @@ class CombinatoricsTest {
                     Arguments.of(10, 5, 252L),
                     Arguments.of(10, 8, 45L),
                     Arguments.of(100, 10, 17310309456440L),
-                    Arguments.of(300, 8, 1481062243936275L)
+                    Arguments.of(300, 8, 1481062243936275L),
+                    Arguments.of(62, 31, 465428353255261088L),
+                    Arguments.of(66, 33, 7219428434016265740L)
             );
         }
     }
@@ -208,6 +212,30 @@ class CombinatoricsTest {
         void verifyBinomialCoefficientValues(int n, int k, long nCk) {
             assertThat(Combinatorics.binomial(n, k)).isEqualTo(nCk);
         }
+
+        @ParameterizedTest(name = "{0} choose {1}={2}")
+        @ArgumentsSource(BinomialCoefficientProvider.class)
+        @DisplayName("Verify values of nCk calculated as BigInteger")
+        void verifyExactBinomialCoefficientValues(int n, int k, long nCk) {
+            assertThat(Combinatorics.binomialExact(n, k)).isEqualTo(BigInteger.valueOf(nCk));
+        }
+
+        @Test
+        @DisplayName("Verify value of nCk that cannot be represented by long")
+        void verifyExactBinomialCoefficientThatCannotBeRepresentedByLong() {
+            assertThat(Combinatorics.binomialExact(200, 100))
+                    .isEqualTo(new BigInteger("90548514656103281165404177077484163874504589675413336841320"));
+        }
+
+        @ParameterizedTest(name = "{0} choose {1}")
+        @CsvSource({ "67, 33", "100, 50", "200, 100" })
+        @DisplayName("Should throw exception for nCk that cannot be represented by long")
+        void shouldThrowMathArithmeticExceptionForBinomialCoefficientsThatCannotBeRepresentedByLong(int n, int k) {
+            final Exception exception = assertThrows(
+                    ArithmeticException.class, () -> Combinatorics.binomial(n, k));
+
+            assertThat(exception.getMessage()).isEqualTo("long overflow");
+        }
     }
 
     static class FactorialsProvider implements ArgumentsProvider {
@@ -249,6 +277,19 @@ class CombinatoricsTest {
             assertThat(Combinatorics.factorial(n)).isEqualTo(expectedFactorial);
         }
 
+        @ParameterizedTest(name = "{0}!={1}")
+        @ArgumentsSource(FactorialsProvider.class)
+        @DisplayName("Verify values of factorials calculated as BigInteger")
+        void verifyExactFactorials(int n, long expectedFactorial) {
+            assertThat(Combinatorics.factorialExact(n)).isEqualTo(BigInteger.valueOf(expectedFactorial));
+        }
+
+        @Test
+        @DisplayName("Verify value of factorial that cannot be represented by long")
+        void verifyExactFactorialThatCannotBeRepresentedByLong() {
+            assertThat(Combinatorics.factorialExact(25)).isEqualTo(new BigInteger("15511210043330985984000000"));
+        }
+
         @ParameterizedTest(name = "({0})!")
         @ValueSource(ints = {-1, -2, -3, -10, -100, -1000, -10000})
         @DisplayName("Should throw exception when trying to calculate Factorial of negative number")
@@ -269,4 +310,65 @@ class CombinatoricsTest {
             assertThat(exception.getMessage()).isEqualTo("long overflow");
         }
     }
+
+    @Nested
+    @DisplayName("Test Bell and Stirling numbers calculation")
+    class BellTest {
+        @ParameterizedTest(name = "B({0})={1}")
+        @CsvSource({ "0, 1", "1, 1", "2, 2", "3, 5", "4, 15", "5, 52", "10, 115975", "25, 4638590332229999353" })
+        @DisplayName("Verify values of Bell numbers")
+        void verifyBellNumbers(int n, long expectedBell) {
+            assertThat(Combinatorics.bell(n)).isEqualTo(expectedBell);
+            assertThat(Combinatorics.bellExact(n)).isEqualTo(BigInteger.valueOf(expectedBell));
+        }
+
+        @ParameterizedTest(name = "S({0}, {1})={2}")
+        @CsvSource({ "0, 0, 1", "5, 0, 0", "5, 1, 1", "5, 2, 15", "5, 5, 1", "10, 4, 34105", "25, 12, 362262620784874680" })
+        @DisplayName("Verify values of Stirling numbers of the second kind")
+        void verifyStirlingNumbersOfSecondKind(int n, int k, long expectedStirling) {
+            assertThat(Combinatorics.stirlingSecondKind(n, k)).isEqualTo(expectedStirling);
+            assertThat(Combinatorics.stirlingSecondKindExact(n, k)).isEqualTo(BigInteger.valueOf(expectedStirling));
+        }
+
+        @Test
+        @DisplayName("Should throw exception for Bell number that cannot be represented by long")
+        void shouldThrowMathArithmeticExceptionForBellNumberThatCannotBeRepresentedByLong() {
+            final Exception exception = assertThrows(
+                    ArithmeticException.class, () -> Combinatorics.bell(26));
+
+            assertThat(exception.getMessage()).isEqualTo("long overflow");
+            assertThat(Combinatorics.bellExact(26)).isEqualTo(new BigInteger("49631246523618756274"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test partition numbers calculation")
+    class PartitionNumberTest {
+        @ParameterizedTest(name = "p({0})={1}")
+        @CsvSource({ "0, 1", "1, 1", "5, 7", "10, 42", "100, 190569292", "405, 9147679068859117602" })
+        @DisplayName("Verify values of partition numbers")
+        void verifyPartitionNumbers(int n, long expectedPartitionNumber) {
+            assertThat(Combinatorics.partitionNumber(n)).isEqualTo(expectedPartitionNumber);
+            assertThat(Combinatorics.partitionNumberExact(n)).isEqualTo(BigInteger.valueOf(expectedPartitionNumber));
+        }
+
+        @ParameterizedTest(name = "p({0}, {1}, {2})={3}")
+        @CsvSource({ "10, 3, 5, 5", "10, 3, 3, 0", "10, 10, 1, 1", "30, 6, 12, 587", "1000, 10, 200, 77472474506552" })
+        @DisplayName("Verify numbers of partitions with bounded number of parts and maximal part")
+        void verifyBoundedPartitionNumbers(int n, int k, int m, long expectedPartitionNumber) {
+            assertThat(Combinatorics.partitionNumber(n, k, m)).isEqualTo(expectedPartitionNumber);
+            assertThat(Combinatorics.partitionNumberExact(n, k, m))
+                    .isEqualTo(BigInteger.valueOf(expectedPartitionNumber));
+        }
+
+        @Test
+        @DisplayName("Should throw exception for partition number that cannot be represented by long")
+        void shouldThrowMathArithmeticExceptionForPartitionNumberThatCannotBeRepresentedByLong() {
+            final Exception exception = assertThrows(
+                    ArithmeticException.class, () -> Combinatorics.partitionNumber(406));
+
+            assertThat(exception.getMessage()).isEqualTo("long overflow");
+            assertThat(Combinatorics.partitionNumberExact(406)).isEqualTo(new BigInteger("9725512513742021729"));
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LehmerCodeTest {
+    @Test
+    @DisplayName("Verify Lehmer code of a permutation")
+    void verifyLehmerCodeOfPermutation() {
+        // Given
+        final var permutation = new int[]{ 3, 0, 4, 1, 2 };
+        final var digits = new int[5];
+
+        // When
+        final var valid = LehmerCode.encode(5, permutation, digits);
+
+        // Then
+        assertThat(valid).isTrue();
+        assertThat(digits).isEqualTo(new int[]{ 3, 0, 2, 0, 0 });
+    }
+
+    @Test
+    @DisplayName("Verify partial Lehmer code of a short prefix of a large set")
+    void verifyPartialLehmerCodeOfShortPrefix() {
+        // Given
+        final var prefix = new int[]{ 999, 5, 998 };
+        final var digits = new int[3];
+
+        // When
+        final var valid = LehmerCode.encode(1000, prefix, digits);
+
+        // Then
+        assertThat(valid).isTrue();
+        assertThat(digits).isEqualTo(new int[]{ 999, 5, 997 });
+    }
+
+    @Test
+    @DisplayName("Verify that decoding fills remaining elements with unused indexes in ascending order")
+    void verifyDecodingFillsTailWithUnusedIndexes() {
+        // Given
+        final var shortPrefix = new int[6];
+        final var longPrefix = new int[6];
+
+        // When
+        LehmerCode.decode(6, new int[]{ 4, 0 }, shortPrefix);
+        LehmerCode.decode(6, new int[]{ 4, 0, 2 }, longPrefix);
+
+        // Then
+        assertThat(shortPrefix).isEqualTo(new int[]{ 4, 0, 1, 2, 3, 5 });
+        assertThat(longPrefix).isEqualTo(new int[]{ 4, 0, 3, 1, 2, 5 });
+    }
+
+    @Test
+    @DisplayName("Verify that encoding is inverse of decoding for short and long prefixes")
+    void verifyThatEncodingIsInverseOfDecoding() {
+        // Given
+        final var n = 16;
+        final var random = new Random(1024);
+
+        for (int k = 1; k <= n; k++) {
+            for (int sample = 0; sample < 100; sample++) {
+                final var digits = new int[k];
+                final var available = IntStream.range(0, n).boxed().collect(Collectors.toList());
+                final var expected = new int[k];
+                for (int i = 0; i < k; i++) {
+                    digits[i] = random.nextInt(n - i);
+                    expected[i] = available.remove(digits[i]);
+                }
+                final var sequence = new int[k];
+                final var encoded = new int[k];
+
+                // When
+                LehmerCode.decode(n, digits, sequence);
+
+                // Then
+                assertThat(sequence).isEqualTo(expected);
+                assertThat(LehmerCode.encode(n, sequence, encoded)).isTrue();
+                assertThat(encoded).isEqualTo(digits);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject sequences with repeated or out of range indexes")
+    void shouldRejectInvalidSequences() {
+        assertThat(LehmerCode.encode(3, new int[]{ 1, 1 }, new int[2])).isFalse();
+        assertThat(LehmerCode.encode(3, new int[]{ 0, 3 }, new int[2])).isFalse();
+        assertThat(LehmerCode.encode(100, new int[]{ 7, 7 }, new int[2])).isFalse();
+        assertThat(LehmerCode.encode(100, new int[]{ -1 }, new int[1])).isFalse();
+    }
+}
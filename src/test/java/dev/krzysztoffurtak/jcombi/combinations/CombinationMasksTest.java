@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CombinationMasksTest {
+    @Test
+    @DisplayName("Combination masks of 4 choose 2")
+    void verifyCombinationMasksOfFourChooseTwo() {
+        // Given
+        final var masks = Combinatorics.combinationMasks(4, 2);
+
+        // When
+        final var result = masks.stream().toArray();
+
+        // Then
+        assertThat(result).containsExactly(0b0011, 0b0101, 0b0110, 0b1001, 0b1010, 0b1100);
+        assertThat(masks.count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Combination masks are all masks with k bits set in increasing order")
+    void verifyCombinationMasksMatchAllMasksWithKBitsSet() {
+        // Given
+        final var masks = Combinatorics.combinationMasks(12, 5);
+
+        // When
+        final var result = masks.stream().toArray();
+
+        // Then
+        final var expected = LongStream.range(0, 1L << 12).filter(mask -> Long.bitCount(mask) == 5).toArray();
+        assertThat(result).containsExactly(expected);
+        assertThat(masks.count()).isEqualTo(expected.length);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of combination masks yields the same masks as sequential stream")
+    void verifyParallelStreamOfCombinationMasks() {
+        // Given
+        final var masks = Combinatorics.combinationMasks(20, 6);
+
+        // When
+        final var result = masks.parallelStream().toArray();
+
+        // Then
+        assertThat(result).containsExactly(masks.stream().toArray());
+    }
+
+    @Test
+    @DisplayName("Spliterator of combination masks of 64 elements is not sorted")
+    void verifySpliteratorOfCombinationMasksOfSixtyFourElementsIsNotSorted() {
+        // Given
+        final var masks = Combinatorics.combinationMasks(64, 1);
+
+        // When
+        final var sorted = masks.stream().sorted().toArray();
+
+        // Then
+        assertThat(masks.spliterator().hasCharacteristics(Spliterator.SORTED)).isFalse();
+        assertThat(sorted[0]).isEqualTo(Long.MIN_VALUE);
+        assertThat(sorted[63]).isEqualTo(1L << 62);
+    }
+
+
+    @Test
+    @DisplayName("Spliterator of combination masks is sized and splits in half")
+    void verifySpliteratorOfCombinationMasks() {
+        // Given
+        final var spliterator = Combinatorics.combinationMasks(10, 3).spliterator();
+
+        // When
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED))
+                .isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.estimateSize()).isEqualTo(60);
+        assertThat(spliterator.estimateSize()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Combination masks of 64 elements use the highest bit")
+    void verifyCombinationMasksOfSixtyFourElements() {
+        // Given
+        final var masks = Combinatorics.combinationMasks(64, 2);
+
+        // When
+        final var result = masks.stream().toArray();
+
+        // Then
+        assertThat(result).hasSize(2016);
+        assertThat(result[result.length - 1]).isEqualTo(0b11L << 62);
+        assertThat(masks.unrank(2015)).isEqualTo(0b11L << 62);
+        assertThat(masks.rank(0b11L << 62)).isEqualTo(2015);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of combination masks are inverse")
+    void verifyRankAndUnrankOfCombinationMasks() {
+        // Given
+        final var masks = Combinatorics.combinationMasks(15, 7);
+
+        // When
+        final var ranks = masks.stream().map(masks::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, masks.count()).toArray());
+        assertThat(LongStream.range(0, masks.count()).map(masks::unrank).toArray())
+                .containsExactly(masks.stream().toArray());
+    }
+
+    @Test
+    @DisplayName("Mask is mapped onto the input set")
+    void verifySelectOfMask() {
+        // Given
+        final var inputSet = List.of("A", "B", "C", "D");
+
+        // When
+        final var result = Combinatorics.combinationMasks(4, 2).stream()
+                .mapToObj(mask -> String.join("", CombinationMasks.select(mask, inputSet)))
+                .collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly("AB", "AC", "BC", "AD", "BD", "CD");
+        assertThat(CombinationMasks.indexes(0b1010)).containsExactly(1, 3);
+    }
+
+    @Test
+    @DisplayName("Combination masks with more than 64 elements are not allowed")
+    void verifyCombinationMasksWithTooManyElements() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinationMasks(65, 2));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("n must be less or equal to 64");
+    }
+
+    @Test
+    @DisplayName("Rank of mask with wrong number of bits set is not allowed")
+    void verifyRankOfInvalidMask() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinationMasks(4, 2).rank(0b10110));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("mask must have k bits set, all of them less than n");
+    }
+}
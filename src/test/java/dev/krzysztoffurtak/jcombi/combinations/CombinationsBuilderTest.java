@@ -21,10 +21,12 @@
  */
 package dev.krzysztoffurtak.jcombi.combinations;
 
+import dev.krzysztoffurtak.jcombi.TupleView;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.RandomAccess;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -51,6 +53,28 @@ class CombinationsBuilderTest {
         );
     }
 
+    @Test
+    @DisplayName("Verify combinations with bounded repetition builder for generic type")
+    void verifyCombinationsWithBoundedRepetitionBuilderForGenericType() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+        final int k = 3;
+
+        // When
+        final var combinations =
+                CombinationsBuilder.<String>builder().of(inputSet).choose(k, new int[] { 2, 0, 2 });
+
+        // Then
+        assertThat(combinations.n()).isEqualTo(inputSet.length);
+        assertThat(combinations.k()).isEqualTo(k);
+        assertThat(combinations.count()).isEqualTo(2);
+        assertThat(combinations).containsExactly(
+                List.of("A", "A", "C"),
+                List.of("A", "C", "C")
+        );
+    }
+
+
     @Test
     @DisplayName("Verify combinations with repetition builder for generic type")
     void verifyCombinationsWithRepetitionBuilderForGenericType() {
@@ -120,4 +144,69 @@ class CombinationsBuilderTest {
                 new int[] { 2, 2 }
         );
     }
+
+    @Test
+    @DisplayName("Verify combinations view builder for generic type")
+    void verifyCombinationsViewBuilderForGenericType() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+        final int k = 2;
+
+        // When
+        final var combinations =
+                CombinationsBuilder.<String>viewBuilder().of(inputSet).choose(k);
+
+        // Then
+        assertThat(combinations.count()).isEqualTo(3);
+        assertThat(combinations.stream().map(TupleView::snapshot)).containsExactly(
+                List.of("A", "B"),
+                List.of("A", "C"),
+                List.of("B", "C")
+        );
+    }
+
+    @Test
+    @DisplayName("Verify that combinations views are backed by the live index array")
+    void verifyThatCombinationsViewsAreLive() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+        final int k = 2;
+        final var iterator = CombinationsBuilder.<String>viewBuilder().of(inputSet).choose(k).iterator();
+
+        // When
+        final var view = iterator.next();
+        final var snapshot = view.snapshot();
+        iterator.next();
+
+        // Then
+        assertThat(view).isInstanceOf(RandomAccess.class);
+        assertThat(snapshot).isEqualTo(List.of("A", "B"));
+        assertThat(view).isEqualTo(List.of("A", "C"));
+    }
+
+    @Test
+    @DisplayName("Verify that combinations view is reused for every tuple")
+    void verifyThatCombinationsViewIsReused() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C", "D" };
+        final int k = 2;
+        final var combinations = CombinationsBuilder.<String>viewBuilder().of(inputSet).choose(k);
+        final var iterator = combinations.iterator();
+
+        // When
+        final var first = iterator.next();
+        final var second = iterator.next();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(combinations.stream().mapToInt(System::identityHashCode).distinct().count()).isEqualTo(1);
+        assertThat(combinations.parallelStream().map(TupleView::snapshot)).containsExactly(
+                List.of("A", "B"),
+                List.of("A", "C"),
+                List.of("A", "D"),
+                List.of("B", "C"),
+                List.of("B", "D"),
+                List.of("C", "D")
+        );
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.VisitorRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CombinationsWithBoundedRepetitionTest {
+    private VisitorRecorder<Object> combinationsVisitorRecorder;
+
+    @BeforeEach
+    void setUp() {
+        combinationsVisitorRecorder = new VisitorRecorder<>();
+    }
+
+    @Test
+    @DisplayName("Combinations with bounded repetition of multiplicities 2, 0, 1, 3 choose 4")
+    void verifyCombinationsWithBoundedRepetition() {
+        // Given
+        final var combinations = new CombinationsWithBoundedRepetition<>(new int[]{ 2, 0, 1, 3 }, 4,
+                combinationsVisitorRecorder);
+
+        // When
+        combinations.forEach(o -> {});
+
+        // Then
+        combinationsVisitorRecorder.verify(new int[][]{
+                { 0, 0, 2, 3 },
+                { 0, 0, 3, 3 },
+                { 0, 2, 3, 3 },
+                { 0, 3, 3, 3 },
+                { 2, 3, 3, 3 }
+        });
+        assertThat(combinations.n()).isEqualTo(4);
+        assertThat(combinations.k()).isEqualTo(4);
+        assertThat(combinations.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Iteration over combinations with bounded repetition of large multiset does not count them")
+    void verifyIterationOverCombinationsWithBoundedRepetitionOfLargeMultiset() {
+        // Given
+        final int[] multiplicities = new int[20_000];
+        Arrays.fill(multiplicities, 3);
+        final var combinations = new CombinationsWithBoundedRepetition<>(multiplicities, 200,
+                InputSetBuilder.sequenceFromIndexes());
+
+        // When
+        final var iterator = combinations.iterator();
+        final var first = iterator.next();
+        final var second = iterator.next();
+
+        // Then
+        final int[] expected = new int[200];
+        Arrays.setAll(expected, i -> i / 3);
+        assertThat(first).isEqualTo(expected);
+        expected[199] = 67;
+        assertThat(second).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Combinations with bounded repetition are combinations with repetition within multiplicities")
+    void verifyCombinationsWithBoundedRepetitionMatchFilteredCombinationsWithRepetition() {
+        // Given
+        final int[] multiplicities = new int[]{ 3, 1, 4, 0, 2, 5, 1 };
+        final int k = 7;
+
+        // When
+        final var result = new ArrayList<String>();
+        Combinatorics.combinations(multiplicities, k).forEachIndices(index -> result.add(Arrays.toString(index)));
+
+        // Then
+        final var expected = new ArrayList<String>();
+        new CombinationsWithRepetition<>(multiplicities.length, k, InputSetBuilder.sequenceFromIndexes())
+                .forEachIndices(index -> {
+                    final int[] counts = new int[multiplicities.length];
+                    Arrays.stream(index).forEach(i -> counts[i]++);
+                    for (int i = 0; i < multiplicities.length; i++) {
+                        if (counts[i] > multiplicities[i]) {
+                            return true;
+                        }
+                    }
+                    return expected.add(Arrays.toString(index));
+                });
+        assertThat(result).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Combinations with bounded repetition may be longer than the input set")
+    void verifyCombinationsWithBoundedRepetitionLongerThanInputSet() {
+        // Given
+        final var combinations = Combinatorics.<String>combinations().of("A", "B").choose(4, new int[]{ 2, 3 });
+
+        // When
+        final var result = combinations.stream().map(combination -> String.join("", combination));
+
+        // Then
+        assertThat(result).containsExactly("AABB", "ABBB");
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of combinations with bounded repetition follow enumeration order")
+    void verifyRankAndUnrankOfCombinationsWithBoundedRepetition() {
+        // Given
+        final var combinations = Combinatorics.combinations(new int[]{ 2, 3, 1, 2, 4 }, 6);
+        final var indices = new ArrayList<int[]>();
+        combinations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // When
+        final var ranks = indices.stream().mapToLong(combinations::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, combinations.count()).toArray());
+        assertThat(LongStream.range(0, combinations.count()).mapToObj(combinations::unrank))
+                .containsExactlyElementsOf(indices);
+        assertThat(indices.stream().map(combinations::rankExact).mapToLong(BigInteger::longValueExact).toArray())
+                .containsExactly(ranks);
+    }
+
+    @Test
+    @DisplayName("Exact count, rank and unrank of combinations with bounded repetition")
+    void verifyExactRankAndUnrankOfCombinationsWithBoundedRepetition() {
+        // Given
+        final int[] multiplicities = new int[40];
+        Arrays.fill(multiplicities, 30);
+        final var combinations = Combinatorics.combinations(multiplicities, 500);
+        final var rank = combinations.countExact().shiftRight(1);
+
+        // When
+        final var combination = combinations.unrank(rank);
+
+        // Then
+        assertThat(combinations.rankExact(combination)).isEqualTo(rank);
+        assertThat(combinations.countExact()).isEqualTo(
+                Combinatorics.combinations(multiplicities, 700).countExact());
+        assertThrows(ArithmeticException.class, combinations::count);
+    }
+
+    @Test
+    @DisplayName("Rank of combination with bounded repetition that cannot be represented by long")
+    void verifyRankOfCombinationWithBoundedRepetitionThatCannotBeRepresentedByLong() {
+        // Given
+        final int[] multiplicities = new int[100];
+        Arrays.fill(multiplicities, 100);
+        final var combinations = Combinatorics.combinations(multiplicities, 60);
+        final var combination = combinations.unrank(combinations.countExact().subtract(BigInteger.ONE));
+
+        // When
+        final Exception exception = assertThrows(ArithmeticException.class, () -> combinations.rank(combination));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("long overflow");
+        assertThat(combinations.rankExact(combination)).isEqualTo(
+                combinations.countExact().subtract(BigInteger.ONE));
+    }
+
+
+    @Test
+    @DisplayName("Parallel stream of combinations with bounded repetition yields the same combinations as sequential stream")
+    void verifyParallelStreamOfCombinationsWithBoundedRepetition() {
+        // Given
+        final var combinations = Combinatorics.combinations(new int[]{ 3, 1, 2, 5, 2, 4, 1, 3, 2, 2 }, 8);
+
+        // When
+        final var result = combinations.parallelStream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        assertThat(result).hasSize((int) combinations.count()).containsExactlyElementsOf(
+                combinations.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Combinations with bounded repetition exceeding total multiplicity")
+    void verifyCombinationsWithBoundedRepetitionExceedingTotalMultiplicity() {
+        // When
+        final var combinations = Combinatorics.combinations(new int[]{ 1, 2 }, 4);
+
+        // Then
+        assertThat(combinations.count()).isZero();
+        assertThat(combinations.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalid combination with bounded repetition to rank")
+    void verifyRankOfInvalidCombinationWithBoundedRepetition() {
+        // Given
+        final var combinations = Combinatorics.combinations(new int[]{ 1, 2 }, 2);
+
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> combinations.rank(new int[]{ 0, 0 }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("combination must be a non-decreasing sequence of indexes less "
+                + "than n, each occurring at most multiplicities[index] times");
+    }
+
+    @Test
+    @DisplayName("Negative multiplicity of combinations with bounded repetition")
+    void verifyNegativeMultiplicity() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinations(new int[]{ 1, -1 }, 1));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("multiplicities must be greater or equal to zero");
+    }
+}
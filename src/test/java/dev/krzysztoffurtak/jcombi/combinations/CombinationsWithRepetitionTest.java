@@ -21,11 +21,21 @@
  */
 package dev.krzysztoffurtak.jcombi.combinations;
 
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
 import dev.krzysztoffurtak.jcombi.VisitorRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -230,6 +240,175 @@ public class CombinationsWithRepetitionTest {
         assertThat(combinations.count()).isEqualTo(4);
     }
 
+    @Test
+    @DisplayName("Parallel stream of combinations with repetition of 4 choose 6")
+    void verifyParallelStreamOfCombinationsOfInputSetWithFourElementsChooseSix() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(4, 6, InputSetBuilder.sequenceFromIndexes());
+
+        // When
+        final var parallel = combinations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        final var sequential = new ArrayList<int[]>();
+        combinations.forEach(sequential::add);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+        assertThat(parallel).hasSize(84);
+    }
+
+    @Test
+    @DisplayName("Spliterator of combinations with repetition knows its exact size")
+    void verifySpliteratorOfCombinationsWithRepetitionIsSized() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(40, 8, combinationsVisitorRecorder);
+
+        // When
+        final var spliterator = combinations.spliterator();
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown()).isEqualTo(314457495L);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of combinations with repetition of 4 choose 5 follow enumeration order")
+    void verifyRankAndUnrankOfCombinationsOfInputSetWithFourElementsChooseFive() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(4, 5, InputSetBuilder.sequenceFromIndexes());
+        final var buffer = new int[5];
+
+        // When
+        var rank = 0L;
+        for (final int[] combination : combinations) {
+            // Then
+            assertThat(combinations.rank(combination)).isEqualTo(rank);
+            assertThat(combinations.unrank(rank)).isEqualTo(combination);
+            assertThat(combinations.unrank(rank, buffer)).isSameAs(buffer).isEqualTo(combination);
+            assertThat(combinations.rankExact(combination)).isEqualTo(BigInteger.valueOf(rank));
+            assertThat(combinations.unrank(BigInteger.valueOf(rank))).isEqualTo(combination);
+            rank++;
+        }
+        assertThat(rank).isEqualTo(combinations.count());
+        assertThat(combinations.countExact()).isEqualTo(BigInteger.valueOf(rank));
+    }
+
+    @Test
+    @DisplayName("Exact rank and unrank of combinations with repetition of 100 choose 100")
+    void verifyExactRankAndUnrankOfCombinationsOfInputSetWithHundredElementsChooseHundred() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(100, 100, InputSetBuilder.sequenceFromIndexes());
+        final var last = combinations.countExact().subtract(BigInteger.ONE);
+
+        // When
+        final var combination = combinations.unrank(last);
+
+        // Then
+        assertThat(combinations.countExact()).isEqualTo(Combinatorics.binomialExact(199, 100));
+        assertThat(combination).containsOnly(99);
+        assertThat(combinations.rankExact(combination)).isEqualTo(last);
+    }
+
+    @Test
+    @DisplayName("Invalid rank of combination with repetition")
+    void verifyThatExceptionIsThrownWhenRankIsInvalid() {
+        final var combinations = new CombinationsWithRepetition<>(3, 2, combinationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> combinations.unrank(-1));
+        assertThat(exception.getMessage()).isEqualTo("rank must be greater or equal to zero and less than count()");
+    }
+
+    @Test
+    @DisplayName("Invalid combination with repetition to rank")
+    void verifyThatExceptionIsThrownWhenCombinationToRankIsInvalid() {
+        final var combinations = new CombinationsWithRepetition<>(3, 2, combinationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> combinations.rank(new int[]{ 1, 3 }));
+        assertThat(exception.getMessage())
+                .isEqualTo("combination must be a non-decreasing sequence of indexes less than n");
+    }
+
+    @Test
+    @DisplayName("Index arrays of combinations with repetition of 3 choose 4 without use of visitor")
+    void verifyForEachIndicesOfCombinationsWithRepetitionOfThreeElementsChooseFour() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(3, 4, combinationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = combinations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        combinations.forEach(o -> {});
+        assertThat(completed).isTrue();
+        combinationsVisitorRecorder.verify(indices.toArray(new int[0][]));
+    }
+
+    @Test
+    @DisplayName("Stop iteration over index arrays of combinations with repetition of 3 choose 4")
+    void verifyThatForEachIndicesOfCombinationsWithRepetitionCanBeStopped() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(3, 4, combinationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = combinations.forEachIndices(index -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Prefix pruning of combinations with repetition of 10 choose 6 with bounded sum")
+    void verifyPrefixPruningOfCombinationsWithRepetition() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(10, 6, combinationsVisitorRecorder);
+        final var prefixes = new AtomicInteger();
+        final var pruned = new ArrayList<int[]>();
+
+        // When
+        final var completed = combinations.forEachIndices((indices, depth) -> {
+            prefixes.incrementAndGet();
+            return Arrays.stream(indices, 0, depth).sum() <= 8;
+        }, index -> pruned.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = new ArrayList<int[]>();
+        combinations.forEachIndices(index -> !(Arrays.stream(index).sum() <= 8) || expected.add(Arrays.copyOf(index, index.length)));
+        assertThat(completed).isTrue();
+        assertThat(pruned).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(prefixes.get()).isLessThan((int) combinations.count());
+    }
+
+
+    @Test
+    @DisplayName("Batches of combinations with repetition of 3 choose 4")
+    void verifyBatchesOfCombinationsWithRepetitionOfThreeElementsChooseFour() {
+        // Given
+        final var combinations = new CombinationsWithRepetition<>(3, 4, InputSetBuilder.sequenceFromIndexes());
+        final var iterator = combinations.iterator();
+        final var flat = new int[7 * 4];
+        final var batched = new ArrayList<int[]>();
+        batched.add(iterator.next());
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 7)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 4, (i + 1) * 4));
+            }
+        }
+
+        // Then
+        assertThat(batched).containsExactlyElementsOf(combinations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Should allow to convert combinations with repetition to combinations without repetition")
     void shouldAllowToConvertCombinationsWithRepetitionToCombinationsWithoutRepetition() {
@@ -21,11 +21,23 @@
  */
 package dev.krzysztoffurtak.jcombi.combinations;
 
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.PrefixVisitor;
 import dev.krzysztoffurtak.jcombi.VisitorRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -177,6 +189,307 @@ public class CombinationsWithoutRepetitionTest {
         assertThat(combinations.count()).isEqualTo(4);
     }
 
+    @Test
+    @DisplayName("Parallel stream of combinations without repetition of 10 choose 4")
+    void verifyParallelStreamOfCombinationsOfInputSetWithTenElementsChooseFour() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(10, 4, InputSetBuilder.sequenceFromIndexes());
+
+        // When
+        final var parallel = combinations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        final var sequential = new ArrayList<int[]>();
+        combinations.forEach(sequential::add);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+        assertThat(parallel).hasSize(210);
+    }
+
+    @Test
+    @DisplayName("Spliterator of combinations without repetition knows its exact size")
+    void verifySpliteratorOfCombinationsWithoutRepetitionIsSized() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(40, 8, combinationsVisitorRecorder);
+
+        // When
+        final var spliterator = combinations.spliterator();
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown()).isEqualTo(76904685L);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of combinations without repetition of 7 choose 3 follow enumeration order")
+    void verifyRankAndUnrankOfCombinationsOfInputSetWithSevenElementsChooseThree() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(7, 3, InputSetBuilder.sequenceFromIndexes());
+        final var buffer = new int[3];
+
+        // When
+        var rank = 0L;
+        for (final int[] combination : combinations) {
+            // Then
+            assertThat(combinations.rank(combination)).isEqualTo(rank);
+            assertThat(combinations.unrank(rank)).isEqualTo(combination);
+            assertThat(combinations.unrank(rank, buffer)).isSameAs(buffer).isEqualTo(combination);
+            assertThat(combinations.rankExact(combination)).isEqualTo(BigInteger.valueOf(rank));
+            assertThat(combinations.unrank(BigInteger.valueOf(rank))).isEqualTo(combination);
+            rank++;
+        }
+        assertThat(rank).isEqualTo(combinations.count());
+        assertThat(combinations.countExact()).isEqualTo(BigInteger.valueOf(rank));
+    }
+
+    @Test
+    @DisplayName("Unrank of the last combination without repetition of 40 choose 8")
+    void verifyUnrankOfLastCombinationOfInputSetWithFortyElementsChooseEight() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(40, 8, combinationsVisitorRecorder);
+
+        // When
+        final var combination = combinations.unrank(combinations.count() - 1);
+
+        // Then
+        assertThat(combination).isEqualTo(new int[]{ 32, 33, 34, 35, 36, 37, 38, 39 });
+        assertThat(combinations.rank(combination)).isEqualTo(combinations.count() - 1);
+    }
+
+    @Test
+    @DisplayName("Exact rank and unrank of combinations without repetition of 200 choose 100")
+    void verifyExactRankAndUnrankOfCombinationsOfInputSetWithTwoHundredElementsChooseHundred() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(200, 100, InputSetBuilder.sequenceFromIndexes());
+        final var middle = combinations.countExact().shiftRight(1);
+
+        // When
+        final var first = combinations.unrank(BigInteger.ZERO);
+        final var last = combinations.unrank(combinations.countExact().subtract(BigInteger.ONE));
+        final var combination = combinations.unrank(middle);
+
+        // Then
+        assertThat(combinations.countExact()).isEqualTo(Combinatorics.binomialExact(200, 100));
+        assertThat(first).isEqualTo(IntStream.range(0, 100).toArray());
+        assertThat(last).isEqualTo(IntStream.range(100, 200).toArray());
+        assertThat(combinations.rankExact(combination)).isEqualTo(middle);
+        assertThat(combinations.stream().limit(2)).containsExactly(
+                IntStream.range(0, 100).toArray(),
+                IntStream.concat(IntStream.range(0, 99), IntStream.of(100)).toArray());
+        assertThrows(ArithmeticException.class, combinations::count);
+    }
+
+    @Test
+    @DisplayName("Invalid rank of combination without repetition")
+    void verifyThatExceptionIsThrownWhenRankIsInvalid() {
+        final var combinations = new CombinationsWithoutRepetition<>(4, 2, combinationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> combinations.unrank(6));
+        assertThat(exception.getMessage()).isEqualTo("rank must be greater or equal to zero and less than count()");
+    }
+
+    @Test
+    @DisplayName("Invalid combination without repetition to rank")
+    void verifyThatExceptionIsThrownWhenCombinationToRankIsInvalid() {
+        final var combinations = new CombinationsWithoutRepetition<>(4, 2, combinationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> combinations.rank(new int[]{ 2, 1 }));
+        assertThat(exception.getMessage())
+                .isEqualTo("combination must be an increasing sequence of indexes less than n");
+    }
+
+    @Test
+    @DisplayName("Invalid length of buffer for unranked combination without repetition")
+    void verifyThatExceptionIsThrownWhenBufferLengthIsInvalid() {
+        final var combinations = new CombinationsWithoutRepetition<>(4, 2, combinationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> combinations.unrank(0, new int[3]));
+        assertThat(exception.getMessage()).isEqualTo("combination must be an array of length k");
+    }
+
+    @Test
+    @DisplayName("Index arrays of combinations without repetition of 5 choose 3 without use of visitor")
+    void verifyForEachIndicesOfCombinationsWithoutRepetitionOfFiveElementsChooseThree() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(5, 3, combinationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = combinations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        combinations.forEach(o -> {});
+        assertThat(completed).isTrue();
+        combinationsVisitorRecorder.verify(indices.toArray(new int[0][]));
+    }
+
+    @Test
+    @DisplayName("Stop iteration over index arrays of combinations without repetition of 5 choose 3")
+    void verifyThatForEachIndicesOfCombinationsWithoutRepetitionCanBeStopped() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(5, 3, combinationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = combinations.forEachIndices(index -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Combinations without repetition of 5 choose 3 in revolving-door order")
+    void verifyRevolvingDoorOrderOfCombinationsWithoutRepetitionOfFiveElementsChooseThree() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(5, 3, combinationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = combinations.forEachIndicesInRevolvingDoorOrder(
+                index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(indices).containsExactly(
+                new int[]{ 0, 1, 2 },
+                new int[]{ 0, 2, 3 },
+                new int[]{ 1, 2, 3 },
+                new int[]{ 0, 1, 3 },
+                new int[]{ 0, 3, 4 },
+                new int[]{ 1, 3, 4 },
+                new int[]{ 2, 3, 4 },
+                new int[]{ 0, 2, 4 },
+                new int[]{ 1, 2, 4 },
+                new int[]{ 0, 1, 4 }
+        );
+    }
+
+    @Test
+    @DisplayName("Swaps of combinations without repetition of 10 choose 4 update running sum of combination")
+    void verifySwapsOfCombinationsWithoutRepetitionOfTenElementsChooseFour() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(10, 4, combinationsVisitorRecorder);
+        final var sums = new ArrayList<Integer>();
+        final var sum = new AtomicInteger(0 + 1 + 2 + 3);
+        sums.add(sum.get());
+
+        // When
+        final var completed = combinations.forEachSwap((out, in) -> sums.add(sum.addAndGet(in - out)));
+
+        // Then
+        final var expected = new ArrayList<Integer>();
+        combinations.forEachIndicesInRevolvingDoorOrder(index -> expected.add(Arrays.stream(index).sum()));
+        assertThat(completed).isTrue();
+        assertThat(sums).hasSize((int) combinations.count()).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Stop iteration over swaps of combinations without repetition of 5 choose 3")
+    void verifyThatForEachSwapOfCombinationsWithoutRepetitionCanBeStopped() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(5, 3, combinationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = combinations.forEachSwap((out, in) -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+
+    @Test
+    @DisplayName("Fold of combinations without repetition of 10 choose 4 pushes only changed suffix")
+    void verifyFoldIndicesOfCombinationsWithoutRepetition() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(10, 4, combinationsVisitorRecorder);
+        final var sums = new int[4 + 1];
+        final var pushes = new AtomicInteger();
+        final var pops = new AtomicInteger();
+        final var folded = new ArrayList<Integer>();
+
+        // When
+        final var completed = combinations.foldIndices(new PrefixVisitor() {
+            @Override
+            public void push(int depth, int index) {
+                pushes.incrementAndGet();
+                sums[depth + 1] = sums[depth] + index * (depth + 1);
+            }
+
+            @Override
+            public void pop(int depth) {
+                pops.incrementAndGet();
+            }
+
+            @Override
+            public boolean accept(int[] indices) {
+                return folded.add(sums[4]);
+            }
+        });
+
+        // Then
+        final var expected = new ArrayList<Integer>();
+        combinations.forEachIndices(index -> expected.add(IntStream.range(0, 4).map(i -> index[i] * (i + 1)).sum()));
+        assertThat(completed).isTrue();
+        assertThat(folded).isEqualTo(expected);
+        assertThat(pops.get()).isEqualTo(pushes.get());
+        assertThat(pushes.get()).isLessThan(4 * expected.size() / 2);
+    }
+
+
+    @Test
+    @DisplayName("Prefix pruning of combinations without repetition of 12 choose 5 with bounded sum")
+    void verifyPrefixPruningOfCombinationsWithoutRepetition() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(12, 5, combinationsVisitorRecorder);
+        final var prefixes = new AtomicInteger();
+        final var pruned = new ArrayList<int[]>();
+
+        // When
+        final var completed = combinations.forEachIndices((indices, depth) -> {
+            prefixes.incrementAndGet();
+            return Arrays.stream(indices, 0, depth).sum() <= 12;
+        }, index -> pruned.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = new ArrayList<int[]>();
+        combinations.forEachIndices(index -> !(Arrays.stream(index).sum() <= 12) || expected.add(Arrays.copyOf(index, index.length)));
+        assertThat(completed).isTrue();
+        assertThat(pruned).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(prefixes.get()).isLessThan((int) combinations.count());
+    }
+
+
+    @Test
+    @DisplayName("Batches of combinations without repetition of 6 choose 3")
+    void verifyBatchesOfCombinationsWithoutRepetitionOfSixElementsChooseThree() {
+        // Given
+        final var combinations = new CombinationsWithoutRepetition<>(6, 3, InputSetBuilder.sequenceFromIndexes());
+        final var iterator = combinations.iterator();
+        final var flat = new int[7 * 3];
+        final var batched = new ArrayList<int[]>();
+        batched.add(iterator.next());
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 7)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 3, (i + 1) * 3));
+            }
+        }
+
+        // Then
+        assertThat(batched).containsExactlyElementsOf(combinations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Should allow to convert combinations without repetition to combinations with repetition")
     void shouldAllowToConvertCombinationsWithoutRepetitionToCombinationsWithRepetition() {
@@ -237,6 +550,25 @@ public class CombinationsWithoutRepetitionTest {
         assertThat(exception.getMessage()).isEqualTo("k must be less or equal to n");
     }
 
+    @Test
+    @DisplayName("Exhausted iterator of combinations without repetition")
+    void verifyThatExceptionIsThrownWhenIteratorIsExhausted() {
+        final var iterator = new CombinationsWithoutRepetition<>(2, 2, combinationsVisitorRecorder).iterator();
+        iterator.next();
+        assertThat(iterator.hasNext()).isFalse();
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    @DisplayName("Too short buffer for batch of combinations without repetition")
+    void verifyThatExceptionIsThrownWhenBatchBufferIsTooShort() {
+        final var iterator = new CombinationsWithoutRepetition<>(4, 2, combinationsVisitorRecorder).iterator();
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> iterator.nextBatch(new int[5], 3));
+        assertThat(exception.getMessage()).isEqualTo("flat must be an array of length at least maxTuples * width");
+    }
+
     @Test
     @DisplayName("Combinations visitor is null")
     void verifyThatExceptionIsThrownWhenCombinationsVisitorIsNull() {
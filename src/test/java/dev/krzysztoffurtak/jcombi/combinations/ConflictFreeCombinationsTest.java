@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConflictFreeCombinationsTest {
+    @Test
+    @DisplayName("Conflict-free combinations of 4 choose 2 of path graph")
+    void verifyConflictFreeCombinationsOfPathGraph() {
+        // Given
+        final var conflicts = new long[][]{ { 0b0010 }, { 0b0101 }, { 0b1010 }, { 0b0100 } };
+
+        // When
+        final var result = Combinatorics.combinations(4, 2).withConflicts(conflicts).stream()
+                .collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly(
+                new int[]{ 0, 2 },
+                new int[]{ 0, 3 },
+                new int[]{ 1, 3 }
+        );
+    }
+
+    @Test
+    @DisplayName("Batches of conflict-free combinations")
+    void verifyBatchesOfConflictFreeCombinations() {
+        // Given
+        final var conflicts = randomGraph(12, 0.3, 5);
+        final var combinations = Combinatorics.combinations(12, 3).withConflicts(conflicts);
+        final var iterator = combinations.iterator();
+        final var flat = new int[5 * 3];
+        final var batched = new ArrayList<int[]>();
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 5)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 3, (i + 1) * 3));
+            }
+        }
+
+        // Then
+        assertThat(batched).isNotEmpty().containsExactlyElementsOf(combinations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Conflict-free combinations are the combinations without conflicting pair")
+    void verifyConflictFreeCombinationsMatchFilteredCombinations() {
+        // Given
+        final var conflicts = randomGraph(70, 0.3, 13);
+        final var combinations = Combinatorics.combinations(70, 3);
+        final var conflictFreeCombinations = combinations.withConflicts(conflicts);
+
+        // When
+        final var result = new ArrayList<int[]>();
+        final var completed = conflictFreeCombinations.forEachIndices(
+                index -> result.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = combinations.stream()
+                .filter(combination -> Arrays.stream(combination).allMatch(i -> Arrays.stream(combination)
+                        .noneMatch(j -> (conflicts[i][j / 64] & 1L << j) != 0)))
+                .collect(Collectors.toList());
+        assertThat(completed).isTrue();
+        assertThat(result).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(conflictFreeCombinations.stream().collect(Collectors.toList())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of conflict-free combinations yields the same combinations as sequential stream")
+    void verifyParallelStreamOfConflictFreeCombinations() {
+        // Given
+        final var conflictFreeCombinations = Combinatorics.combinations(80, 4).withConflicts(randomGraph(80, 0.5, 5));
+
+        // When
+        final var result = conflictFreeCombinations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        assertThat(result).isNotEmpty().containsExactlyElementsOf(
+                conflictFreeCombinations.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Conflicts given only in one direction are treated as undirected")
+    void verifyConflictFreeCombinationsOfDirectedConflicts() {
+        // Given
+        final var inputSet = List.of("A", "B", "C");
+        final var conflicts = new long[][]{ { 0b010 }, { 0b000 }, { 0b000 } };
+
+        // When
+        final var result = CombinationsBuilder.<String>builder().of(inputSet).choose(2).withConflicts(conflicts)
+                .stream()
+                .collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly(List.of("A", "C"), List.of("B", "C"));
+    }
+
+    @Test
+    @DisplayName("Conflict-free combinations of complete graph")
+    void verifyConflictFreeCombinationsOfCompleteGraph() {
+        // When
+        final var conflictFreeCombinations = new ConflictFreeCombinations<>(2, randomGraph(10, 1.0, 1),
+                InputSetBuilder.sequenceFromIndexes());
+
+        // Then
+        assertThat(conflictFreeCombinations.iterator().hasNext()).isFalse();
+        assertThat(conflictFreeCombinations.stream().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Conflicts of wrong size are not allowed")
+    void verifyConflictsOfWrongSize() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinations(3, 2).withConflicts(new long[][]{ { 0 }, { 0 }, { 0, 0 } }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("conflicts must be bitsets of (n + 63) / 64 words");
+    }
+
+    private static long[][] randomGraph(int n, double density, long seed) {
+        final var random = new Random(seed);
+        final var conflicts = new long[n][(n + 63) / 64];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextDouble() < density) {
+                    conflicts[i][j / 64] |= 1L << j;
+                    conflicts[j][i / 64] |= 1L << i;
+                }
+            }
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PairsTest {
+    @Test
+    @DisplayName("Pairs of 5 elements in tiles of 2")
+    void verifyPairsOfFiveElementsInTilesOfTwo() {
+        // Given
+        final var pairs = new Pairs(5, 2);
+        final var result = new ArrayList<String>();
+
+        // When
+        pairs.forEach((i, j) -> result.add(i + "" + j));
+
+        // Then
+        assertThat(result).containsExactly("01", "02", "03", "12", "13", "04", "14", "23", "24", "34");
+        assertThat(pairs.count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Pairs of 1000 elements cover each pair exactly once")
+    void verifyPairsCoverEachPairExactlyOnce() {
+        // Given
+        final var pairs = Combinatorics.pairs(1000).withTileSize(64);
+        final var visits = new int[1000 * 1000];
+
+        // When
+        pairs.forEach((i, j) -> visits[i * 1000 + j]++);
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < 1000; j++) {
+                assertThat(visits[i * 1000 + j]).isEqualTo(i < j ? 1 : 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel traversal of pairs covers each pair exactly once")
+    void verifyParallelTraversalOfPairs() {
+        // Given
+        final var pairs = Combinatorics.pairs(1500).withTileSize(100);
+        final var visits = new AtomicIntegerArray(1500 * 1500);
+        final var count = new LongAdder();
+        final var pool = new ForkJoinPool(4);
+
+        // When
+        pairs.parallelForEach(pool, (i, j) -> {
+            visits.incrementAndGet(i * 1500 + j);
+            count.increment();
+        });
+        pool.shutdown();
+
+        // Then
+        assertThat(count.sum()).isEqualTo(pairs.count());
+        for (int i = 0; i < 1500; i++) {
+            for (int j = i + 1; j < 1500; j++) {
+                assertThat(visits.get(i * 1500 + j)).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel traversal of pairs in tiles of 1 covers each pair exactly once")
+    void verifyParallelTraversalOfPairsInSingleTiles() {
+        // Given
+        final var pairs = Combinatorics.pairs(300).withTileSize(1);
+        final var visits = new AtomicIntegerArray(300 * 300);
+        final var pool = new ForkJoinPool(4);
+
+        // When
+        pairs.parallelForEach(pool, (i, j) -> visits.incrementAndGet(i * 300 + j));
+        pool.shutdown();
+
+        // Then
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 300; j++) {
+                assertThat(visits.get(i * 300 + j)).isEqualTo(i < j ? 1 : 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pairs are the same as combinations of n choose 2")
+    void verifyPairsMatchCombinationsChooseTwo() {
+        // Given
+        final var pairs = Combinatorics.pairs(40).withTileSize(40);
+        final var result = new ArrayList<String>();
+
+        // When
+        pairs.forEach((i, j) -> result.add(Arrays.toString(new int[]{ i, j })));
+
+        // Then
+        final var expected = new ArrayList<String>();
+        Combinatorics.combinations(40, 2).forEachIndices(index -> expected.add(Arrays.toString(index)));
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Stop iteration over pairs")
+    void verifyThatForEachWhileOfPairsCanBeStopped() {
+        // Given
+        final var pairs = Combinatorics.pairs(100);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = pairs.forEachWhile((i, j) -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+        assertThat(Combinatorics.pairs(1).forEachWhile((i, j) -> false)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Tile size must be positive")
+    void verifyInvalidTileSize() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> new Pairs(10, 0));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("tileSize must be greater than zero");
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PowerSetTest {
+    @Test
+    @DisplayName("Power set of set with 3 elements in Gray code order")
+    void verifyPowerSetOfSetWithThreeElements() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(3);
+
+        // When
+        final var result = powerSet.stream().toArray();
+
+        // Then
+        assertThat(result).containsExactly(0b000, 0b001, 0b011, 0b010, 0b110, 0b111, 0b101, 0b100);
+        assertThat(powerSet.n()).isEqualTo(3);
+        assertThat(powerSet.count()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Consecutive subsets of power set of set with 16 elements differ by one element")
+    void verifyPowerSetOfSetWithSixteenElements() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(16);
+
+        // When
+        final var result = powerSet.stream().toArray();
+
+        // Then
+        assertThat(Arrays.stream(result).sorted().toArray()).isEqualTo(LongStream.range(0, 1 << 16).toArray());
+        for (int i = 1; i < result.length; i++) {
+            assertThat(Long.bitCount(result[i - 1] ^ result[i])).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel stream of power set yields the same masks as sequential stream")
+    void verifyParallelStreamOfPowerSet() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(18);
+
+        // When
+        final var result = powerSet.parallelStream().toArray();
+
+        // Then
+        assertThat(result).isEqualTo(powerSet.stream().toArray());
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of power set are inverse")
+    void verifyRankAndUnrankOfPowerSet() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(10);
+
+        // When
+        final var ranks = powerSet.stream().map(powerSet::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, powerSet.count()).toArray());
+        assertThat(Combinatorics.powerSet(62).rank(Combinatorics.powerSet(62).unrank(Long.MAX_VALUE >>> 1)))
+                .isEqualTo(Long.MAX_VALUE >>> 1);
+    }
+
+    @Test
+    @DisplayName("Changes of power set of set with 10 elements replay all subsets")
+    void verifyChangesOfPowerSet() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(10);
+        final var masks = new ArrayList<Long>();
+        final var mask = new long[1];
+        masks.add(mask[0]);
+
+        // When
+        final var completed = powerSet.forEachChange((element, oldValue, newValue) -> {
+            assertThat((mask[0] >>> element) & 1).isEqualTo(oldValue);
+            mask[0] ^= 1L << element;
+            return masks.add(mask[0]);
+        });
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(masks).containsExactly(powerSet.stream().boxed().toArray(Long[]::new));
+    }
+
+    @Test
+    @DisplayName("Index arrays of power set of set with 3 elements")
+    void verifyIndicesOfPowerSet() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(3);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = powerSet.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(indices).containsExactly(
+                new int[]{},
+                new int[]{ 0 },
+                new int[]{ 1, 0 },
+                new int[]{ 1 },
+                new int[]{ 2, 1 },
+                new int[]{ 2, 1, 0 },
+                new int[]{ 2, 0 },
+                new int[]{ 2 }
+        );
+    }
+
+    @Test
+    @DisplayName("Index arrays of power set of set with 12 elements follow masks")
+    void verifyIndicesOfPowerSetFollowMasks() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(12);
+        final var masks = new ArrayList<Long>();
+
+        // When
+        final var completed = powerSet.forEachIndices(index -> {
+            long mask = 0;
+            for (int i = 0; i < index.length; i++) {
+                assertThat(i == 0 || index[i - 1] > index[i]).isTrue();
+                mask |= 1L << index[i];
+            }
+            return masks.add(mask);
+        });
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(masks).containsExactly(powerSet.stream().boxed().toArray(Long[]::new));
+    }
+
+    @Test
+    @DisplayName("Power set of empty set consists of the empty subset")
+    void verifyPowerSetOfEmptySet() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(0);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = powerSet.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(indices).containsExactly(new int[]{});
+        assertThat(powerSet.count()).isEqualTo(1);
+        assertThat(powerSet.stream().toArray()).containsExactly(0L);
+        assertThat(powerSet.rank(0)).isZero();
+        assertThat(powerSet.unrank(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Stop iteration over changes of power set")
+    void verifyThatForEachChangeOfPowerSetCanBeStopped() {
+        // Given
+        final var powerSet = Combinatorics.powerSet(5);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = powerSet.forEachChange((element, oldValue, newValue) -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Power set of set with more than 62 elements is not allowed")
+    void verifyPowerSetWithTooManyElements() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> Combinatorics.powerSet(63));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("n must be less or equal to 62");
+    }
+}
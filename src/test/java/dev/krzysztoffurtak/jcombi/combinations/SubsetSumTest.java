@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SubsetSumTest {
+    @Test
+    @DisplayName("Subsets of 5 values summing up to the target")
+    void verifySubsetSumOfFiveValues() {
+        // Given
+        final var subsetSum = Combinatorics.subsetSum(new long[]{ 3, 1, 4, 2, 5 }, 6);
+
+        // When
+        final var result = subsetSum.stream().map(Arrays::toString).sorted().collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly("[0, 1, 3]", "[1, 4]", "[2, 3]");
+        assertThat(subsetSum.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Subsets of fixed size summing up to the target")
+    void verifySubsetSumOfFixedSize() {
+        // Given
+        final var subsetSum = Combinatorics.subsetSum(new long[]{ 3, 1, 4, 2, 5 }, 6, 2);
+
+        // When
+        final var result = subsetSum.stream().map(Arrays::toString).sorted().collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly("[1, 4]", "[2, 3]");
+        assertThat(subsetSum.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Subset sum finds the same subsets as brute force")
+    void verifySubsetSumMatchesBruteForce() {
+        // Given
+        final var values = new Random(11).longs(16, -10, 30).toArray();
+        final var subsetSum = Combinatorics.subsetSum(values, 40, 5);
+
+        // When
+        final var result = subsetSum.masks().sorted().toArray();
+
+        // Then
+        final var expected = LongStream.range(0, 1 << 16)
+                .filter(mask -> Long.bitCount(mask) == 5)
+                .filter(mask -> Arrays.stream(CombinationMasks.indexes(mask)).mapToLong(i -> values[i]).sum() == 40)
+                .toArray();
+        assertThat(result).isNotEmpty().containsExactly(expected);
+        assertThat(subsetSum.count()).isEqualTo(expected.length);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of subset sum yields the same subsets as sequential stream")
+    void verifyParallelStreamOfSubsetSum() {
+        // Given
+        final var values = new Random(7).longs(26, 1, 10_000).toArray();
+        final var subsetSum = Combinatorics.subsetSum(values, 60_000);
+
+        // When
+        final var result = subsetSum.parallelStream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        assertThat(result).isNotEmpty().hasSize((int) subsetSum.count())
+                .containsExactlyElementsOf(subsetSum.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Index arrays of subset sum without allocation per subset")
+    void verifyForEachIndicesOfSubsetSum() {
+        // Given
+        final var values = new Random(5).longs(20, 0, 50).toArray();
+        final var subsetSum = Combinatorics.subsetSum(values, 120);
+        final var result = new ArrayList<String>();
+
+        // When
+        final var completed = subsetSum.forEachIndices(index -> result.add(Arrays.toString(index)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(result).isNotEmpty()
+                .containsExactlyElementsOf(subsetSum.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Subset sum of more than 57 values is not allowed")
+    void verifySubsetSumOfTooManyValues() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.subsetSum(new long[58], 0));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("values must be an array of at most 57 elements");
+    }
+
+    @Test
+    @DisplayName("Subset sum of fixed size keeps only lower subsets of at most k elements")
+    void verifySubsetSumOfFixedSizeWithManyValues() {
+        // Given
+        final long[] values = LongStream.rangeClosed(1, 40).toArray();
+
+        // When
+        final var subsetSum = Combinatorics.subsetSum(values, 3, 2);
+
+        // Then
+        assertThat(subsetSum.stream()).containsExactly(new int[]{ 0, 1 });
+    }
+}
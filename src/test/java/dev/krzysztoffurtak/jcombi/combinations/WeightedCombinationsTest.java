@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.combinations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WeightedCombinationsTest {
+    @Test
+    @DisplayName("Weighted combinations of 5 choose 2 within bounds")
+    void verifyWeightedCombinationsOfFiveChooseTwo() {
+        // Given
+        final var weights = new long[]{ 1, 2, 3, 5, 8 };
+
+        // When
+        final var result = Combinatorics.combinations(5, 2).withWeights(weights, 6, 8).stream()
+                .collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly(
+                new int[]{ 0, 3 },
+                new int[]{ 1, 3 },
+                new int[]{ 2, 3 }
+        );
+    }
+
+    @Test
+    @DisplayName("Batches of weighted combinations")
+    void verifyBatchesOfWeightedCombinations() {
+        // Given
+        final var weights = new long[]{ 1, 2, 3, 5, 8, 13 };
+        final var combinations = Combinatorics.combinations(6, 3).withWeights(weights, 10, 20);
+        final var iterator = combinations.iterator();
+        final var flat = new int[4 * 3];
+        final var batched = new ArrayList<int[]>();
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 4)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 3, (i + 1) * 3));
+            }
+        }
+
+        // Then
+        assertThat(batched).isNotEmpty().containsExactlyElementsOf(combinations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Weighted combinations are the combinations with total weight within bounds")
+    void verifyWeightedCombinationsMatchFilteredCombinations() {
+        // Given
+        final var random = new Random(17);
+        final var weights = random.longs(18, -20, 50).sorted().toArray();
+        final var combinations = Combinatorics.combinations(18, 6);
+        final var weightedCombinations = combinations.withWeights(weights, 90, 110);
+
+        // When
+        final var result = new ArrayList<int[]>();
+        final var completed = weightedCombinations.forEachIndices(
+                index -> result.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = combinations.stream()
+                .filter(combination -> Arrays.stream(combination).mapToLong(i -> weights[i]).sum() >= 90)
+                .filter(combination -> Arrays.stream(combination).mapToLong(i -> weights[i]).sum() <= 110)
+                .collect(Collectors.toList());
+        assertThat(completed).isTrue();
+        assertThat(result).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(weightedCombinations.stream().collect(Collectors.toList())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of weighted combinations yields the same combinations as sequential stream")
+    void verifyParallelStreamOfWeightedCombinations() {
+        // Given
+        final var weights = new Random(3).longs(24, 0, 100).sorted().toArray();
+        final var weightedCombinations = Combinatorics.combinations(24, 5).withWeights(weights, 200, 230);
+
+        // When
+        final var result = weightedCombinations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        assertThat(result).isNotEmpty().containsExactlyElementsOf(
+                weightedCombinations.stream().collect(Collectors.toList()));
+        assertThat(result).allSatisfy(combination ->
+                assertThat(weightedCombinations.weight(combination)).isBetween(200L, 230L));
+    }
+
+    @Test
+    @DisplayName("Weighted combinations of input set")
+    void verifyWeightedCombinationsOfInputSet() {
+        // Given
+        final var inputSet = List.of("A", "B", "C", "D");
+
+        // When
+        final var result = CombinationsBuilder.<String>builder().of(inputSet).choose(3)
+                .withWeights(new long[]{ 1, 1, 2, 3 }, 5, 5).stream()
+                .collect(Collectors.toList());
+
+        // Then
+        assertThat(result).containsExactly(List.of("A", "B", "D"));
+    }
+
+    @Test
+    @DisplayName("Weighted combinations without any combination within bounds")
+    void verifyWeightedCombinationsWithoutAnyCombinationWithinBounds() {
+        // When
+        final var weightedCombinations = new WeightedCombinations<>(3, new long[]{ 1, 2, 3, 4 }, 10, 20,
+                InputSetBuilder.sequenceFromIndexes());
+
+        // Then
+        assertThat(weightedCombinations.iterator().hasNext()).isFalse();
+        assertThat(weightedCombinations.stream().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Unsorted weights are not allowed")
+    void verifyUnsortedWeights() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinations(3, 2).withWeights(new long[]{ 2, 1, 3 }, 0, 10));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("weights must be sorted in non-decreasing order");
+    }
+
+    @Test
+    @DisplayName("Weights of wrong length are not allowed")
+    void verifyWeightsOfWrongLength() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinations(3, 2).withWeights(new long[]{ 1, 2 }, 0, 10));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("weights must be an array of length n");
+    }
+
+    @Test
+    @DisplayName("Lower bound greater than upper bound is not allowed")
+    void verifyInvalidBounds() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.combinations(3, 2).withWeights(new long[]{ 1, 2, 3 }, 5, 4));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("lo must be less or equal to hi");
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.VisitorRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CompositionsTest {
+    private VisitorRecorder<Object> compositionsVisitorRecorder;
+
+    @BeforeEach
+    void setUp() {
+        compositionsVisitorRecorder = new VisitorRecorder<>();
+    }
+
+    @Test
+    @DisplayName("Compositions of 5 into 3 parts")
+    void verifyCompositionsOfFiveIntoThreeParts() {
+        // Given
+        final var compositions = new Compositions<>(5, 3, compositionsVisitorRecorder);
+
+        // When
+        compositions.forEach(o -> {});
+
+        // Then
+        compositionsVisitorRecorder.verify(new int[][]{
+                { 1, 1, 3 },
+                { 1, 2, 2 },
+                { 1, 3, 1 },
+                { 2, 1, 2 },
+                { 2, 2, 1 },
+                { 3, 1, 1 }
+        });
+        assertThat(compositions.n()).isEqualTo(5);
+        assertThat(compositions.k()).isEqualTo(3);
+        assertThat(compositions.count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of compositions follow enumeration order")
+    void verifyRankAndUnrankOfCompositions() {
+        // Given
+        final var compositions = Combinatorics.compositions(12, 5);
+        final var indices = new ArrayList<int[]>();
+        compositions.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // When
+        final var ranks = indices.stream().mapToLong(compositions::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, compositions.count()).toArray());
+        assertThat(LongStream.range(0, compositions.count()).mapToObj(compositions::unrank))
+                .containsExactlyElementsOf(indices);
+        assertThat(indices.stream().map(compositions::rankExact).mapToLong(BigInteger::longValueExact).toArray())
+                .containsExactly(ranks);
+    }
+
+    @Test
+    @DisplayName("Exact count, rank and unrank of compositions")
+    void verifyExactRankAndUnrankOfCompositions() {
+        // Given
+        final var compositions = Combinatorics.compositions(200, 100);
+        final var rank = compositions.countExact().subtract(BigInteger.ONE);
+
+        // When
+        final var composition = compositions.unrank(rank);
+
+        // Then
+        assertThat(compositions.countExact()).isEqualTo(Combinatorics.binomialExact(199, 99));
+        assertThat(composition[0]).isEqualTo(101);
+        assertThat(compositions.rankExact(composition)).isEqualTo(rank);
+        assertThrows(ArithmeticException.class, compositions::count);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of compositions yields the same compositions as sequential stream")
+    void verifyParallelStreamOfCompositions() {
+        // Given
+        final var compositions = Combinatorics.compositions(20, 6);
+
+        // When
+        final var result = compositions.parallelStream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        assertThat(result).hasSize(11_628)
+                .isEqualTo(compositions.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Compositions of 6 into 5 parts")
+    void verifyCompositionsOfSixIntoFiveParts() {
+        // Given
+        final var compositions = Combinatorics.compositions(6, 5);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = compositions.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(indices).containsExactly(
+                new int[]{ 1, 1, 1, 1, 2 },
+                new int[]{ 1, 1, 1, 2, 1 },
+                new int[]{ 1, 1, 2, 1, 1 },
+                new int[]{ 1, 2, 1, 1, 1 },
+                new int[]{ 2, 1, 1, 1, 1 }
+        );
+        assertThat(compositions.stream().collect(Collectors.toList())).containsExactlyElementsOf(indices);
+    }
+
+    @Test
+    @DisplayName("Invalid composition to rank")
+    void verifyRankOfInvalidComposition() {
+        // Given
+        final var compositions = Combinatorics.compositions(5, 2);
+
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> compositions.rank(new int[]{ 5, 0 }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("composition must consist of positive parts summing up to n");
+    }
+
+    @Test
+    @DisplayName("Compositions into more parts than n")
+    void verifyCompositionsIntoTooManyParts() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.compositions(3, 4));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("k must be less or equal to n");
+    }
+}
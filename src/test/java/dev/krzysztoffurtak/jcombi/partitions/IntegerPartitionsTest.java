@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.VisitorRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IntegerPartitionsTest {
+    private VisitorRecorder<Object> partitionsVisitorRecorder;
+
+    @BeforeEach
+    void setUp() {
+        partitionsVisitorRecorder = new VisitorRecorder<>();
+    }
+
+    @Test
+    @DisplayName("Integer partitions of 5")
+    void verifyIntegerPartitionsOfFive() {
+        // Given
+        final var partitions = new IntegerPartitions<>(5, partitionsVisitorRecorder);
+
+        // When
+        partitions.forEach(o -> {});
+
+        // Then
+        partitionsVisitorRecorder.verify(new int[][]{
+                { 5, 0, 0, 0, 0 },
+                { 4, 1, 0, 0, 0 },
+                { 3, 2, 0, 0, 0 },
+                { 3, 1, 1, 0, 0 },
+                { 2, 2, 1, 0, 0 },
+                { 2, 1, 1, 1, 0 },
+                { 1, 1, 1, 1, 1 }
+        });
+        assertThat(partitions.n()).isEqualTo(5);
+        assertThat(partitions.count()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Integer partitions of 10 into at most 3 parts not greater than 5")
+    void verifyBoundedIntegerPartitions() {
+        // Given
+        final var partitions = new IntegerPartitions<>(10, 3, 5, partitionsVisitorRecorder);
+
+        // When
+        partitions.forEach(o -> {});
+
+        // Then
+        partitionsVisitorRecorder.verify(new int[][]{
+                { 5, 5, 0 },
+                { 5, 4, 1 },
+                { 5, 3, 2 },
+                { 4, 4, 2 },
+                { 4, 3, 3 }
+        });
+        assertThat(partitions.k()).isEqualTo(3);
+        assertThat(partitions.m()).isEqualTo(5);
+        assertThat(partitions.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Number of integer partitions is partition number")
+    void verifyNumberOfIntegerPartitions() {
+        // Given
+        final var partitions = Combinatorics.integerPartitions(30, 6, 12);
+        final var counter = new AtomicInteger();
+
+        // When
+        partitions.forEachIndices(index -> counter.incrementAndGet() > 0);
+
+        // Then
+        assertThat(counter.get()).isEqualTo(587).isEqualTo(partitions.count());
+        assertThat(partitions.countExact()).isEqualTo(Combinatorics.partitionNumberExact(30, 6, 12));
+    }
+
+    @Test
+    @DisplayName("Parallel stream of integer partitions yields the same partitions as sequential stream")
+    void verifyParallelStreamOfIntegerPartitions() {
+        // Given
+        final var partitions = Combinatorics.integerPartitions(40);
+
+        // When
+        final var result = partitions.parallelStream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        assertThat(result).hasSize(37_338)
+                .isEqualTo(partitions.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Batches of integer partitions of 12 into at most 4 parts")
+    void verifyBatchesOfIntegerPartitions() {
+        // Given
+        final var partitions = Combinatorics.integerPartitions(12, 4, 12);
+        final var iterator = partitions.iterator();
+        final var flat = new int[5 * 4];
+        final var batched = new ArrayList<int[]>();
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 5)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 4, (i + 1) * 4));
+            }
+        }
+
+        // Then
+        assertThat(batched).hasSize(34).containsExactlyElementsOf(partitions.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Integer partitions that do not fit within bounds")
+    void verifyIntegerPartitionsOutOfBounds() {
+        // When
+        final var partitions = Combinatorics.integerPartitions(10, 3, 3);
+
+        // Then
+        assertThat(partitions.count()).isZero();
+        assertThat(partitions.iterator().hasNext()).isFalse();
+        assertThat(partitions.stream()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Negative maximal part of integer partitions")
+    void verifyNegativeMaximalPart() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.integerPartitions(10, 3, -1));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("m must be greater of equal to zero");
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.partitions;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.VisitorRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SetPartitionsTest {
+    private VisitorRecorder<Object> partitionsVisitorRecorder;
+
+    @BeforeEach
+    void setUp() {
+        partitionsVisitorRecorder = new VisitorRecorder<>();
+    }
+
+    @Test
+    @DisplayName("Set partitions of 4 elements")
+    void verifySetPartitionsOfFourElements() {
+        // Given
+        final var partitions = new SetPartitions<>(4, partitionsVisitorRecorder);
+
+        // When
+        partitions.forEach(o -> {});
+
+        // Then
+        partitionsVisitorRecorder.verify(new int[][]{
+                { 0, 0, 0, 0 },
+                { 0, 0, 0, 1 },
+                { 0, 0, 1, 0 },
+                { 0, 0, 1, 1 },
+                { 0, 0, 1, 2 },
+                { 0, 1, 0, 0 },
+                { 0, 1, 0, 1 },
+                { 0, 1, 0, 2 },
+                { 0, 1, 1, 0 },
+                { 0, 1, 1, 1 },
+                { 0, 1, 1, 2 },
+                { 0, 1, 2, 0 },
+                { 0, 1, 2, 1 },
+                { 0, 1, 2, 2 },
+                { 0, 1, 2, 3 }
+        });
+        assertThat(partitions.n()).isEqualTo(4);
+        assertThat(partitions.k()).isEmpty();
+        assertThat(partitions.count()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Set partitions of 5 elements into 3 blocks")
+    void verifySetPartitionsOfFiveElementsIntoThreeBlocks() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(5, 3);
+
+        // When
+        final var result = partitions.stream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        final var expected = Combinatorics.setPartitions(5).stream()
+                .filter(partition -> Arrays.stream(partition).max().orElseThrow() == 2)
+                .map(Arrays::toString)
+                .collect(Collectors.toList());
+        assertThat(partitions.k()).isEqualTo(OptionalInt.of(3));
+        assertThat(result).hasSize(25).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Set partitions builder groups elements of the input set into blocks")
+    void verifySetPartitionsBuilder() {
+        // When
+        final var partitions = Combinatorics.<String>setPartitions().of("A", "B", "C").into(2);
+
+        // Then
+        assertThat(partitions.count()).isEqualTo(3);
+        assertThat(partitions).containsExactly(
+                List.of(List.of("A", "B"), List.of("C")),
+                List.of(List.of("A", "C"), List.of("B")),
+                List.of(List.of("A"), List.of("B", "C"))
+        );
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of set partitions follow enumeration order")
+    void verifyRankAndUnrankOfSetPartitions() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(7, 4);
+        final var indices = new ArrayList<int[]>();
+        partitions.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // When
+        final var ranks = indices.stream().mapToLong(partitions::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, partitions.count()).toArray());
+        assertThat(LongStream.range(0, partitions.count()).mapToObj(partitions::unrank))
+                .containsExactlyElementsOf(indices);
+        assertThat(indices.stream().map(partitions::rankExact).mapToLong(BigInteger::longValueExact).toArray())
+                .containsExactly(ranks);
+    }
+
+    @Test
+    @DisplayName("Exact count, rank and unrank of set partitions")
+    void verifyExactRankAndUnrankOfSetPartitions() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(40);
+        final var rank = partitions.countExact().subtract(BigInteger.TWO);
+
+        // When
+        final var partition = partitions.unrank(rank);
+
+        // Then
+        assertThat(partitions.countExact()).isEqualTo(Combinatorics.bellExact(40));
+        assertThat(partitions.rankExact(partition)).isEqualTo(rank);
+        assertThat(partition[38]).isEqualTo(38);
+        assertThat(partition[39]).isEqualTo(38);
+        assertThrows(ArithmeticException.class, partitions::count);
+    }
+
+    @Test
+    @DisplayName("Rank of set partition that cannot be represented by long")
+    void verifyRankOfSetPartitionThatCannotBeRepresentedByLong() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(30);
+        final var partition = partitions.unrank(partitions.countExact().subtract(BigInteger.ONE));
+
+        // When
+        final Exception exception = assertThrows(ArithmeticException.class, () -> partitions.rank(partition));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("long overflow");
+        assertThat(partitions.rankExact(partition)).isEqualTo(new BigInteger("846749014511809332450146"));
+    }
+
+
+    @Test
+    @DisplayName("Iteration over set partitions of 1000 elements does not count them")
+    void verifyIterationOverSetPartitionsOfThousandElements() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(1000);
+
+        // When
+        final var iterator = partitions.iterator();
+        final var first = iterator.next();
+        final var second = iterator.next();
+
+        // Then
+        assertThat(first).isEqualTo(new int[1000]);
+        final int[] expected = new int[1000];
+        expected[999] = 1;
+        assertThat(second).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of set partitions yields the same partitions as sequential stream")
+    void verifyParallelStreamOfSetPartitions() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(10);
+
+        // When
+        final var result = partitions.parallelStream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        assertThat(result).hasSize(115_975)
+                .isEqualTo(partitions.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Set partitions into 0 blocks")
+    void verifySetPartitionsIntoZeroBlocks() {
+        // When
+        final var partitions = new SetPartitions<>(3, 0, InputSetBuilder.sequenceFromIndexes());
+
+        // Then
+        assertThat(partitions.count()).isZero();
+        assertThat(partitions.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalid restricted growth string to rank")
+    void verifyRankOfInvalidRestrictedGrowthString() {
+        // Given
+        final var partitions = Combinatorics.setPartitions(3);
+
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> partitions.rank(new int[]{ 0, 2, 1 }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("partition must be a restricted growth string");
+    }
+
+    @Test
+    @DisplayName("Set partitions into more blocks than elements")
+    void verifySetPartitionsIntoTooManyBlocks() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.setPartitions(3, 4));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("k must be less or equal to n");
+    }
+}
@@ -21,10 +21,12 @@
  */
 package dev.krzysztoffurtak.jcombi.permutations;
 
+import dev.krzysztoffurtak.jcombi.TupleView;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.RandomAccess;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -52,6 +54,42 @@ public class PermutationsBuilderTest {
         );
     }
 
+    @Test
+    @DisplayName("Verify permutations with repetition builder for generic type")
+    void verifyPermutationsWithRepetitionBuilderForGenericType() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "A" };
+
+        // When
+        final var permutations =
+                PermutationsBuilder.<String>builder().of(inputSet).withRepetition();
+
+        // Then
+        assertThat(permutations.n()).isEqualTo(inputSet.length);
+        assertThat(permutations.count()).isEqualTo(3);
+        assertThat(permutations).containsExactly(
+                List.of("A", "A", "B"),
+                List.of("A", "B", "A"),
+                List.of("B", "A", "A")
+        );
+    }
+
+    @Test
+    @DisplayName("Verify permutations with repetition builder for multiplicities")
+    void verifyPermutationsWithRepetitionBuilderForMultiplicities() {
+        // When
+        final var permutations = PermutationsBuilder.build(new int[] { 1, 2 });
+
+        // Then
+        assertThat(permutations.n()).isEqualTo(3);
+        assertThat(permutations.m()).isEqualTo(2);
+        assertThat(permutations).containsExactly(
+                new int[] { 0, 1, 1 },
+                new int[] { 1, 0, 1 },
+                new int[] { 1, 1, 0 }
+        );
+    }
+
     @Test
     @DisplayName("Verify permutations builder for ints")
     void verifyPermutationsWithoutRepetitionBuilderForInts() {
@@ -73,4 +111,44 @@ public class PermutationsBuilderTest {
                 new int[] { 2, 1, 0 }
         );
     }
+
+    @Test
+    @DisplayName("Verify permutations view builder for generic type")
+    void verifyPermutationsViewBuilderForGenericType() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+
+        // When
+        final var permutations =
+                PermutationsBuilder.<String>viewBuilder().of(inputSet).withoutRepetition();
+
+        // Then
+        assertThat(permutations.count()).isEqualTo(6);
+        assertThat(permutations.stream().map(TupleView::snapshot)).containsExactly(
+                List.of("A", "B", "C"),
+                List.of("A", "C", "B"),
+                List.of("B", "A", "C"),
+                List.of("B", "C", "A"),
+                List.of("C", "A", "B"),
+                List.of("C", "B", "A")
+        );
+    }
+
+    @Test
+    @DisplayName("Verify that permutations views are backed by the live index array")
+    void verifyThatPermutationsViewsAreLive() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+        final var iterator = PermutationsBuilder.<String>viewBuilder().of(inputSet).withoutRepetition().iterator();
+
+        // When
+        final var view = iterator.next();
+        final var snapshot = view.snapshot();
+        iterator.next();
+
+        // Then
+        assertThat(view).isInstanceOf(RandomAccess.class);
+        assertThat(snapshot).isEqualTo(List.of("A", "B", "C"));
+        assertThat(view).isEqualTo(List.of("A", "C", "B"));
+    }
 }
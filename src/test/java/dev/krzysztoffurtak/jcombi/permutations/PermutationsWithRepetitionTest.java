@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.permutations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.VisitorRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PermutationsWithRepetitionTest {
+    private VisitorRecorder<Object> permutationsVisitorRecorder;
+
+    @BeforeEach
+    void setUp() {
+        permutationsVisitorRecorder = new VisitorRecorder<>();
+    }
+
+    @Test
+    @DisplayName("Permutations with repetition of multiset AABBB")
+    void verifyPermutationsWithRepetitionOfMultisetAABBB() {
+        // Given
+        final var permutations = new PermutationsWithRepetition<>(new int[]{ 2, 3 }, permutationsVisitorRecorder);
+
+        // When
+        permutations.forEach(o -> {});
+
+        // Then
+        permutationsVisitorRecorder.verify(new int[][]{
+                { 0, 0, 1, 1, 1 },
+                { 0, 1, 0, 1, 1 },
+                { 0, 1, 1, 0, 1 },
+                { 0, 1, 1, 1, 0 },
+                { 1, 0, 0, 1, 1 },
+                { 1, 0, 1, 0, 1 },
+                { 1, 0, 1, 1, 0 },
+                { 1, 1, 0, 0, 1 },
+                { 1, 1, 0, 1, 0 },
+                { 1, 1, 1, 0, 0 }
+        });
+        assertThat(permutations.n()).isEqualTo(5);
+        assertThat(permutations.m()).isEqualTo(2);
+        assertThat(permutations.count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Permutations with repetition are the distinct permutations of the input set")
+    void verifyPermutationsWithRepetitionMatchDistinctPermutations() {
+        // Given
+        final var inputSet = List.of("A", "B", "A", "C", "B", "A", "D");
+
+        // When
+        final var result = Combinatorics.<String>permutations().of(inputSet).withRepetition().stream()
+                .map(permutation -> String.join("", permutation))
+                .collect(Collectors.toList());
+
+        // Then
+        final var expected = Combinatorics.<String>permutations().of(inputSet).withoutRepetition().stream()
+                .map(permutation -> String.join("", permutation))
+                .sorted()
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        assertThat(result).hasSize(420).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of permutations with repetition yields the same permutations as sequential stream")
+    void verifyParallelStreamOfPermutationsWithRepetition() {
+        // Given
+        final var permutations = Combinatorics.permutations(new int[]{ 3, 2, 2, 3 });
+
+        // When
+        final var result = permutations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        assertThat(result).hasSize(25_200).containsExactlyElementsOf(
+                permutations.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Spliterator of permutations with repetition knows its exact size")
+    void verifySpliteratorOfPermutationsWithRepetition() {
+        // Given
+        final var spliterator = Combinatorics.permutations(new int[]{ 2, 2, 2 }).spliterator();
+
+        // When
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.estimateSize() + spliterator.estimateSize()).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of permutations with repetition follow enumeration order")
+    void verifyRankAndUnrankOfPermutationsWithRepetition() {
+        // Given
+        final var permutations = Combinatorics.permutations(new int[]{ 2, 0, 3, 1 });
+        final var indices = new ArrayList<int[]>();
+        permutations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // When
+        final var ranks = indices.stream().mapToLong(permutations::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, permutations.count()).toArray());
+        assertThat(LongStream.range(0, permutations.count()).mapToObj(permutations::unrank))
+                .containsExactlyElementsOf(indices);
+        assertThat(indices.stream().map(permutations::rankExact).mapToLong(BigInteger::longValueExact).toArray())
+                .containsExactly(ranks);
+    }
+
+    @Test
+    @DisplayName("Exact count, rank and unrank of permutations with repetition of 90 elements")
+    void verifyExactRankAndUnrankOfPermutationsWithRepetition() {
+        // Given
+        final var permutations = Combinatorics.permutations(new int[]{ 30, 30, 30 });
+        final var rank = permutations.countExact().subtract(BigInteger.valueOf(12_345));
+
+        // When
+        final var permutation = permutations.unrank(rank);
+
+        // Then
+        assertThat(permutations.countExact()).isEqualTo(Combinatorics.factorialExact(90)
+                .divide(Combinatorics.factorialExact(30).pow(3)));
+        assertThat(permutations.rankExact(permutation)).isEqualTo(rank);
+        assertThrows(ArithmeticException.class, permutations::count);
+    }
+
+    @Test
+    @DisplayName("Stop iteration over index arrays of permutations with repetition")
+    void verifyThatForEachIndicesOfPermutationsWithRepetitionCanBeStopped() {
+        // Given
+        final var permutations = new PermutationsWithRepetition<>(new int[]{ 2, 2 }, permutationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = permutations.forEachIndices(index -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Invalid permutation with repetition to rank")
+    void verifyRankOfInvalidPermutationWithRepetition() {
+        // Given
+        final var permutations = Combinatorics.permutations(new int[]{ 2, 1 });
+
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> permutations.rank(new int[]{ 1, 1, 0 }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("permutation must be an arrangement of the multiset");
+    }
+
+    @Test
+    @DisplayName("Permutations with repetition of empty multiset")
+    void verifyPermutationsWithRepetitionOfEmptyMultiset() {
+        // When
+        final var permutations = new PermutationsWithRepetition<>(new int[]{ 0, 0 },
+                InputSetBuilder.sequenceFromIndexes());
+
+        // Then
+        assertThat(permutations.count()).isZero();
+        assertThat(permutations.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Negative multiplicity")
+    void verifyNegativeMultiplicity() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new PermutationsWithRepetition<>(new int[]{ 1, -1 }, InputSetBuilder.sequenceFromIndexes()));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("multiplicities must be greater or equal to zero");
+    }
+}
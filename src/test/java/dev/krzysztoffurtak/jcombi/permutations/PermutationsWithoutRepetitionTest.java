@@ -21,11 +21,22 @@
  */
 package dev.krzysztoffurtak.jcombi.permutations;
 
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.PrefixVisitor;
 import dev.krzysztoffurtak.jcombi.VisitorRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -288,6 +299,295 @@ class PermutationsWithoutRepetitionTest {
         assertThat(permutations.count()).isEqualTo(120);
     }
 
+    @Test
+    @DisplayName("Parallel stream of permutations without repetition of set with 7 elements")
+    void verifyParallelStreamOfPermutationsOfInputSetWithSevenElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(7, InputSetBuilder.sequenceFromIndexes());
+
+        // When
+        final var parallel = permutations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        final var sequential = new ArrayList<int[]>();
+        permutations.forEach(sequential::add);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+        assertThat(parallel).hasSize(5040);
+    }
+
+    @Test
+    @DisplayName("Spliterator of permutations without repetition knows its exact size")
+    void verifySpliteratorOfPermutationsWithoutRepetitionIsSized() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(12, permutationsVisitorRecorder);
+
+        // When
+        final var spliterator = permutations.spliterator();
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown()).isEqualTo(479001600L);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of permutations without repetition of set with 6 elements follow enumeration order")
+    void verifyRankAndUnrankOfPermutationsOfInputSetWithSixElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(6, InputSetBuilder.sequenceFromIndexes());
+        final var buffer = new int[6];
+
+        // When
+        var rank = 0L;
+        for (final int[] permutation : permutations) {
+            // Then
+            assertThat(permutations.rank(permutation)).isEqualTo(rank);
+            assertThat(permutations.unrank(rank)).isEqualTo(permutation);
+            assertThat(permutations.unrank(rank, buffer)).isSameAs(buffer).isEqualTo(permutation);
+            assertThat(permutations.rankExact(permutation)).isEqualTo(BigInteger.valueOf(rank));
+            assertThat(permutations.unrank(BigInteger.valueOf(rank))).isEqualTo(permutation);
+            rank++;
+        }
+        assertThat(rank).isEqualTo(permutations.count());
+        assertThat(permutations.countExact()).isEqualTo(BigInteger.valueOf(rank));
+    }
+
+    @Test
+    @DisplayName("Unrank of the last permutation without repetition of set with 20 elements")
+    void verifyUnrankOfLastPermutationOfInputSetWithTwentyElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(20, permutationsVisitorRecorder);
+
+        // When
+        final var permutation = permutations.unrank(permutations.count() - 1);
+
+        // Then
+        assertThat(permutation).isEqualTo(IntStream.range(0, 20).map(i -> 19 - i).toArray());
+        assertThat(permutations.rank(permutation)).isEqualTo(permutations.count() - 1);
+    }
+
+    @Test
+    @DisplayName("Exact rank and unrank of permutations without repetition of set with 30 elements")
+    void verifyExactRankAndUnrankOfPermutationsOfInputSetWithThirtyElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(30, InputSetBuilder.sequenceFromIndexes());
+        final var last = permutations.countExact().subtract(BigInteger.ONE);
+
+        // When
+        final var permutation = permutations.unrank(last);
+
+        // Then
+        assertThat(permutations.countExact()).isEqualTo(Combinatorics.factorialExact(30));
+        assertThat(permutation).isEqualTo(IntStream.range(0, 30).map(i -> 29 - i).toArray());
+        assertThat(permutations.rankExact(permutation)).isEqualTo(last);
+        assertThat(permutations.stream().limit(2)).containsExactly(
+                IntStream.range(0, 30).toArray(),
+                IntStream.range(0, 30).map(i -> i < 28 ? i : 57 - i).toArray());
+        assertThrows(ArithmeticException.class, permutations::count);
+    }
+
+    @Test
+    @DisplayName("Invalid permutation to rank")
+    void verifyThatExceptionIsThrownWhenPermutationToRankIsInvalid() {
+        final var permutations = new PermutationsWithoutRepetition<>(3, permutationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> permutations.rank(new int[]{ 0, 2, 0 }));
+        assertThat(exception.getMessage()).isEqualTo("permutation must consist of distinct indexes less than n");
+    }
+
+    @Test
+    @DisplayName("Invalid rank of permutation")
+    void verifyThatExceptionIsThrownWhenRankIsInvalid() {
+        final var permutations = new PermutationsWithoutRepetition<>(3, permutationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> permutations.unrank(6));
+        assertThat(exception.getMessage()).isEqualTo("rank must be greater or equal to zero and less than count()");
+    }
+
+    @Test
+    @DisplayName("Index arrays of permutations without repetition of set with 5 elements without use of visitor")
+    void verifyForEachIndicesOfPermutationsWithoutRepetitionOfFiveElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(5, permutationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = permutations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        permutations.forEach(o -> {});
+        assertThat(completed).isTrue();
+        permutationsVisitorRecorder.verify(indices.toArray(new int[0][]));
+    }
+
+    @Test
+    @DisplayName("Stop iteration over index arrays of permutations without repetition of set with 5 elements")
+    void verifyThatForEachIndicesOfPermutationsWithoutRepetitionCanBeStopped() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(5, permutationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = permutations.forEachIndices(index -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Permutations without repetition of set with 3 elements in plain changes order")
+    void verifyPlainChangesOrderOfPermutationsWithoutRepetitionOfSetWithThreeElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(3, permutationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = permutations.forEachIndicesInPlainChangesOrder(
+                index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(indices).containsExactly(
+                new int[]{ 0, 1, 2 },
+                new int[]{ 0, 2, 1 },
+                new int[]{ 2, 0, 1 },
+                new int[]{ 2, 1, 0 },
+                new int[]{ 1, 2, 0 },
+                new int[]{ 1, 0, 2 }
+        );
+    }
+
+    @Test
+    @DisplayName("Swaps of permutations without repetition of set with 6 elements are adjacent transpositions")
+    void verifySwapsOfPermutationsWithoutRepetitionOfSetWithSixElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(6, permutationsVisitorRecorder);
+        final var index = IntStream.range(0, 6).toArray();
+        final var replayed = new ArrayList<String>();
+        replayed.add(Arrays.toString(index));
+
+        // When
+        final var completed = permutations.forEachSwap((i, j) -> {
+            assertThat(j).isEqualTo(i + 1);
+            final int swapped = index[i];
+            index[i] = index[j];
+            index[j] = swapped;
+            return replayed.add(Arrays.toString(index));
+        });
+
+        // Then
+        final var expected = new ArrayList<String>();
+        permutations.forEachIndicesInPlainChangesOrder(permutation -> expected.add(Arrays.toString(permutation)));
+        assertThat(completed).isTrue();
+        assertThat(replayed).hasSize(720).doesNotHaveDuplicates().isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Stop iteration over swaps of permutations without repetition of set with 5 elements")
+    void verifyThatForEachSwapOfPermutationsWithoutRepetitionCanBeStopped() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(5, permutationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = permutations.forEachSwap((i, j) -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+
+    @Test
+    @DisplayName("Fold of permutations without repetition of set with 6 elements pushes only changed suffix")
+    void verifyFoldIndicesOfPermutationsWithoutRepetition() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(6, permutationsVisitorRecorder);
+        final var sums = new int[6 + 1];
+        final var pushes = new AtomicInteger();
+        final var pops = new AtomicInteger();
+        final var folded = new ArrayList<Integer>();
+
+        // When
+        final var completed = permutations.foldIndices(new PrefixVisitor() {
+            @Override
+            public void push(int depth, int index) {
+                pushes.incrementAndGet();
+                sums[depth + 1] = sums[depth] + index * (depth + 1);
+            }
+
+            @Override
+            public void pop(int depth) {
+                pops.incrementAndGet();
+            }
+
+            @Override
+            public boolean accept(int[] indices) {
+                return folded.add(sums[6]);
+            }
+        });
+
+        // Then
+        final var expected = new ArrayList<Integer>();
+        permutations.forEachIndices(index -> expected.add(IntStream.range(0, 6).map(i -> index[i] * (i + 1)).sum()));
+        assertThat(completed).isTrue();
+        assertThat(folded).isEqualTo(expected);
+        assertThat(pops.get()).isEqualTo(pushes.get());
+        assertThat(pushes.get()).isLessThan(6 * expected.size() / 2);
+    }
+
+
+    @Test
+    @DisplayName("Prefix pruning of permutations without repetition of set with 8 elements without neighbouring indexes next to each other")
+    void verifyPrefixPruningOfPermutationsWithoutRepetition() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(8, permutationsVisitorRecorder);
+        final var prefixes = new AtomicInteger();
+        final var pruned = new ArrayList<int[]>();
+
+        // When
+        final var completed = permutations.forEachIndices((indices, depth) -> {
+            prefixes.incrementAndGet();
+            return depth < 2 || Math.abs(indices[depth - 1] - indices[depth - 2]) != 1;
+        }, index -> pruned.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = new ArrayList<int[]>();
+        permutations.forEachIndices(index -> !(IntStream.range(1, 8).allMatch(i -> Math.abs(index[i] - index[i - 1]) != 1)) || expected.add(Arrays.copyOf(index, index.length)));
+        assertThat(completed).isTrue();
+        assertThat(pruned).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(prefixes.get()).isLessThan((int) permutations.count());
+    }
+
+
+    @Test
+    @DisplayName("Batches of permutations without repetition of set with 4 elements")
+    void verifyBatchesOfPermutationsWithoutRepetitionOfFourElements() {
+        // Given
+        final var permutations = new PermutationsWithoutRepetition<>(4, InputSetBuilder.sequenceFromIndexes());
+        final var iterator = permutations.iterator();
+        final var flat = new int[7 * 4];
+        final var batched = new ArrayList<int[]>();
+        batched.add(iterator.next());
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 7)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 4, (i + 1) * 4));
+            }
+        }
+
+        // Then
+        assertThat(batched).containsExactlyElementsOf(permutations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Permutations without repetition of set with 0 elements")
     void verifyPermutationsOfInputSetWithZeroElements() {
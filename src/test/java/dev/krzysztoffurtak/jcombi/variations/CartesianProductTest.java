@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2022 Krzysztof Furtak
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.krzysztoffurtak.jcombi.variations;
+
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.VisitorRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CartesianProductTest {
+    private VisitorRecorder<Object> variationsVisitorRecorder;
+
+    @BeforeEach
+    void setUp() {
+        variationsVisitorRecorder = new VisitorRecorder<>();
+    }
+
+    @Test
+    @DisplayName("Cartesian product of radices 2, 3, 1")
+    void verifyCartesianProductOfRadices() {
+        // Given
+        final var product = new CartesianProduct<>(new int[]{ 2, 3, 1 }, variationsVisitorRecorder);
+
+        // When
+        product.forEach(o -> {});
+
+        // Then
+        variationsVisitorRecorder.verify(new int[][]{
+                { 0, 0, 0 },
+                { 0, 1, 0 },
+                { 0, 2, 0 },
+                { 1, 0, 0 },
+                { 1, 1, 0 },
+                { 1, 2, 0 }
+        });
+        assertThat(product.n()).isEqualTo(3);
+        assertThat(product.k()).isEqualTo(3);
+        assertThat(product.count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Cartesian product of lists")
+    void verifyCartesianProductOfLists() {
+        // Given
+        final var regions = List.of("eu", "us");
+        final var types = List.of("small", "large");
+        final var disks = List.of(100, 200, 500);
+
+        // When
+        final var product = Combinatorics.product(List.of(regions, types, disks));
+
+        // Then
+        assertThat(product.count()).isEqualTo(12);
+        assertThat(product.stream().limit(4)).containsExactly(
+                List.of("eu", "small", 100),
+                List.of("eu", "small", 200),
+                List.of("eu", "small", 500),
+                List.of("eu", "large", 100)
+        );
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of Cartesian product follow enumeration order")
+    void verifyRankAndUnrankOfCartesianProduct() {
+        // Given
+        final var product = Combinatorics.product(new int[]{ 3, 1, 4, 2 });
+        final var indices = new ArrayList<int[]>();
+        product.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // When
+        final var ranks = indices.stream().mapToLong(product::rank).toArray();
+
+        // Then
+        assertThat(ranks).containsExactly(LongStream.range(0, product.count()).toArray());
+        assertThat(LongStream.range(0, product.count()).mapToObj(product::unrank))
+                .containsExactlyElementsOf(indices);
+        assertThat(indices.stream().map(product::rankExact).mapToLong(BigInteger::longValueExact).toArray())
+                .containsExactly(ranks);
+    }
+
+    @Test
+    @DisplayName("Exact count, rank and unrank of Cartesian product")
+    void verifyExactRankAndUnrankOfCartesianProduct() {
+        // Given
+        final int[] radices = new int[]{ 1_000_000, 3, 1_000_000, 7, 1_000_000, 11, 1_000_000 };
+        final var product = Combinatorics.product(radices);
+        final var rank = product.countExact().subtract(BigInteger.TWO);
+
+        // When
+        final var variation = product.unrank(rank);
+
+        // Then
+        assertThat(variation).containsExactly(999_999, 2, 999_999, 6, 999_999, 10, 999_998);
+        assertThat(product.rankExact(variation)).isEqualTo(rank);
+        assertThat(product.countExact()).isEqualTo(BigInteger.TEN.pow(24).multiply(BigInteger.valueOf(231)));
+        assertThrows(ArithmeticException.class, product::count);
+    }
+
+    @Test
+    @DisplayName("Parallel stream of Cartesian product yields the same tuples as sequential stream")
+    void verifyParallelStreamOfCartesianProduct() {
+        // Given
+        final var product = Combinatorics.product(new int[]{ 3, 12, 5, 7, 2, 9 });
+
+        // When
+        final var result = product.parallelStream().map(Arrays::toString).collect(Collectors.toList());
+
+        // Then
+        assertThat(result).hasSize(22_680).containsExactlyElementsOf(
+                product.stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Cartesian product with empty range")
+    void verifyCartesianProductWithEmptyRange() {
+        // When
+        final var product = Combinatorics.product(new int[]{ 3, 0, 2 });
+
+        // Then
+        assertThat(product.count()).isZero();
+        assertThat(product.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalid tuple of Cartesian product to rank")
+    void verifyRankOfInvalidTupleOfCartesianProduct() {
+        // Given
+        final var product = Combinatorics.product(new int[]{ 3, 2 });
+
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> product.rank(new int[]{ 1, 2 }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("variation must consist of indexes less than respective radices");
+    }
+
+    @Test
+    @DisplayName("Negative radix of Cartesian product")
+    void verifyNegativeRadix() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Combinatorics.product(new int[]{ 3, -2 }));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("radices must be greater or equal to zero");
+    }
+}
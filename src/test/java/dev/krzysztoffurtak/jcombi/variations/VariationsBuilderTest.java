@@ -21,10 +21,12 @@
  */
 package dev.krzysztoffurtak.jcombi.variations;
 
+import dev.krzysztoffurtak.jcombi.TupleView;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.RandomAccess;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -132,4 +134,46 @@ class VariationsBuilderTest {
                 new int[] { 2, 2 }
         );
     }
+
+    @Test
+    @DisplayName("Verify variations view builder for generic type")
+    void verifyVariationsViewBuilderForGenericType() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+        final int k = 2;
+
+        // When
+        final var variations =
+                VariationsBuilder.<String>viewBuilder().of(inputSet).choose(k);
+
+        // Then
+        assertThat(variations.count()).isEqualTo(6);
+        assertThat(variations.stream().map(TupleView::snapshot)).containsExactly(
+                List.of("A", "B"),
+                List.of("A", "C"),
+                List.of("B", "A"),
+                List.of("B", "C"),
+                List.of("C", "A"),
+                List.of("C", "B")
+        );
+    }
+
+    @Test
+    @DisplayName("Verify that variations views are backed by the live index array")
+    void verifyThatVariationsViewsAreLive() {
+        // Given
+        final String[] inputSet = new String[] { "A", "B", "C" };
+        final int k = 2;
+        final var iterator = VariationsBuilder.<String>viewBuilder().of(inputSet).choose(k).iterator();
+
+        // When
+        final var view = iterator.next();
+        final var snapshot = view.snapshot();
+        iterator.next();
+
+        // Then
+        assertThat(view).isInstanceOf(RandomAccess.class);
+        assertThat(snapshot).isEqualTo(List.of("A", "B"));
+        assertThat(view).isEqualTo(List.of("A", "C"));
+    }
 }
@@ -21,11 +21,20 @@
  */
 package dev.krzysztoffurtak.jcombi.variations;
 
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
 import dev.krzysztoffurtak.jcombi.VisitorRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -198,6 +207,231 @@ class VariationsWithRepetitionTest {
         assertThat(variations.count()).isEqualTo(16);
     }
 
+    @Test
+    @DisplayName("Parallel stream of variations with repetition of 6 choose 6")
+    void verifyParallelStreamOfVariationsOfInputSetWithSixElementsChooseSix() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(6, 6, InputSetBuilder.sequenceFromIndexes());
+
+        // When
+        final var parallel = variations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        final var sequential = new ArrayList<int[]>();
+        variations.forEach(sequential::add);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+        assertThat(parallel).hasSize(46656);
+    }
+
+    @Test
+    @DisplayName("Spliterator of variations with repetition knows its exact size")
+    void verifySpliteratorOfVariationsWithRepetitionIsSized() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(10, 9, variationsVisitorRecorder);
+
+        // When
+        final var spliterator = variations.spliterator();
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown()).isEqualTo(1000000000L);
+    }
+
+    @Test
+    @DisplayName("Rank and unrank of variations with repetition of 4 choose 5 follow enumeration order")
+    void verifyRankAndUnrankOfVariationsOfInputSetWithFourElementsChooseFive() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(4, 5, InputSetBuilder.sequenceFromIndexes());
+        final var buffer = new int[5];
+
+        // When
+        var rank = 0L;
+        for (final int[] variation : variations) {
+            // Then
+            assertThat(variations.rank(variation)).isEqualTo(rank);
+            assertThat(variations.unrank(rank)).isEqualTo(variation);
+            assertThat(variations.unrank(rank, buffer)).isSameAs(buffer).isEqualTo(variation);
+            assertThat(variations.rankExact(variation)).isEqualTo(BigInteger.valueOf(rank));
+            assertThat(variations.unrank(BigInteger.valueOf(rank))).isEqualTo(variation);
+            rank++;
+        }
+        assertThat(rank).isEqualTo(variations.count());
+        assertThat(variations.countExact()).isEqualTo(BigInteger.valueOf(rank));
+    }
+
+    @Test
+    @DisplayName("Exact rank and unrank of variations with repetition of 100 choose 20")
+    void verifyExactRankAndUnrankOfVariationsOfInputSetWithHundredElementsChooseTwenty() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(100, 20, InputSetBuilder.sequenceFromIndexes());
+        final var rank = BigInteger.TEN.pow(39).add(BigInteger.valueOf(4203));
+
+        // When
+        final var variation = variations.unrank(rank);
+
+        // Then
+        assertThat(variations.countExact()).isEqualTo(BigInteger.TEN.pow(40));
+        assertThat(variation).isEqualTo(new int[]{ 10, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 42, 3 });
+        assertThat(variations.rankExact(variation)).isEqualTo(rank);
+        assertThrows(ArithmeticException.class, variations::count);
+    }
+
+    @Test
+    @DisplayName("Invalid variation with repetition to rank")
+    void verifyThatExceptionIsThrownWhenVariationToRankIsInvalid() {
+        final var variations = new VariationsWithRepetition<>(4, 2, variationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> variations.rank(new int[]{ 1, 4 }));
+        assertThat(exception.getMessage()).isEqualTo("variation must consist of indexes less than n");
+    }
+
+    @Test
+    @DisplayName("Index arrays of variations with repetition of 3 choose 4 without use of visitor")
+    void verifyForEachIndicesOfVariationsWithRepetitionOfThreeElementsChooseFour() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(3, 4, variationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = variations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        variations.forEach(o -> {});
+        assertThat(completed).isTrue();
+        variationsVisitorRecorder.verify(indices.toArray(new int[0][]));
+    }
+
+    @Test
+    @DisplayName("Stop iteration over index arrays of variations with repetition of 3 choose 4")
+    void verifyThatForEachIndicesOfVariationsWithRepetitionCanBeStopped() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(3, 4, variationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = variations.forEachIndices(index -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Variations with repetition of 3 choose 2 in reflected Gray code order")
+    void verifyGrayCodeOrderOfVariationsWithRepetitionOfThreeChooseTwo() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(3, 2, variationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = variations.forEachIndicesInGrayCodeOrder(
+                index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(indices).containsExactly(
+                new int[]{ 0, 0 },
+                new int[]{ 0, 1 },
+                new int[]{ 0, 2 },
+                new int[]{ 1, 2 },
+                new int[]{ 1, 1 },
+                new int[]{ 1, 0 },
+                new int[]{ 2, 0 },
+                new int[]{ 2, 1 },
+                new int[]{ 2, 2 }
+        );
+    }
+
+    @Test
+    @DisplayName("Changes of variations with repetition of 4 choose 5 change one position by one")
+    void verifyChangesOfVariationsWithRepetitionOfFourChooseFive() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(4, 5, variationsVisitorRecorder);
+        final var index = new int[5];
+        final var replayed = new ArrayList<String>();
+        replayed.add(Arrays.toString(index));
+
+        // When
+        final var completed = variations.forEachChange((position, oldValue, newValue) -> {
+            assertThat(index[position]).isEqualTo(oldValue);
+            assertThat(Math.abs(newValue - oldValue)).isEqualTo(1);
+            index[position] = newValue;
+            return replayed.add(Arrays.toString(index));
+        });
+
+        // Then
+        final var expected = new ArrayList<String>();
+        variations.forEachIndicesInGrayCodeOrder(variation -> expected.add(Arrays.toString(variation)));
+        assertThat(completed).isTrue();
+        assertThat(replayed).hasSize(1024).doesNotHaveDuplicates().isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Stop iteration over changes of variations with repetition of 3 choose 4")
+    void verifyThatForEachChangeOfVariationsWithRepetitionCanBeStopped() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(3, 4, variationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = variations.forEachChange((position, oldValue, newValue) -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+
+    @Test
+    @DisplayName("Prefix pruning of variations with repetition of 6 choose 6 with bounded sum")
+    void verifyPrefixPruningOfVariationsWithRepetition() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(6, 6, variationsVisitorRecorder);
+        final var prefixes = new AtomicInteger();
+        final var pruned = new ArrayList<int[]>();
+
+        // When
+        final var completed = variations.forEachIndices((indices, depth) -> {
+            prefixes.incrementAndGet();
+            return Arrays.stream(indices, 0, depth).sum() <= 7;
+        }, index -> pruned.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = new ArrayList<int[]>();
+        variations.forEachIndices(index -> !(Arrays.stream(index).sum() <= 7) || expected.add(Arrays.copyOf(index, index.length)));
+        assertThat(completed).isTrue();
+        assertThat(pruned).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(prefixes.get()).isLessThan((int) variations.count());
+    }
+
+
+    @Test
+    @DisplayName("Batches of variations with repetition of 3 choose 4")
+    void verifyBatchesOfVariationsWithRepetitionOfThreeElementsChooseFour() {
+        // Given
+        final var variations = new VariationsWithRepetition<>(3, 4, InputSetBuilder.sequenceFromIndexes());
+        final var iterator = variations.iterator();
+        final var flat = new int[7 * 4];
+        final var batched = new ArrayList<int[]>();
+        batched.add(iterator.next());
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 7)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 4, (i + 1) * 4));
+            }
+        }
+
+        // Then
+        assertThat(batched).containsExactlyElementsOf(variations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Should allow to convert variations with repetition to variations without repetition")
     void shouldAllowToConvertVariationsWithRepetitionToVariationsWithoutRepetition() {
@@ -21,10 +21,23 @@
  */
 package dev.krzysztoffurtak.jcombi.variations;
 
+import dev.krzysztoffurtak.jcombi.Combinatorics;
+import dev.krzysztoffurtak.jcombi.InputSetBuilder;
+import dev.krzysztoffurtak.jcombi.PrefixVisitor;
 import dev.krzysztoffurtak.jcombi.VisitorRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -252,6 +265,206 @@ class VariationsWithoutRepetitionTest {
         assertThat(variations.count()).isEqualTo(24);
     }
 
+    @Test
+    @DisplayName("Parallel stream of variations without repetition of 8 choose 5")
+    void verifyParallelStreamOfVariationsOfInputSetWithEightElementsChooseFive() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(8, 5, InputSetBuilder.sequenceFromIndexes());
+
+        // When
+        final var parallel = variations.parallelStream().collect(Collectors.toList());
+
+        // Then
+        final var sequential = new ArrayList<int[]>();
+        variations.forEach(sequential::add);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+        assertThat(parallel).hasSize(6720);
+    }
+
+    @Test
+    @DisplayName("Spliterator of variations without repetition knows its exact size")
+    void verifySpliteratorOfVariationsWithoutRepetitionIsSized() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(20, 10, variationsVisitorRecorder);
+
+        // When
+        final var spliterator = variations.spliterator();
+        final var prefix = spliterator.trySplit();
+
+        // Then
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown()).isEqualTo(670442572800L);
+    }
+
+    @ParameterizedTest(name = "{0} choose {1}")
+    @CsvSource({ "9, 2", "6, 4", "5, 5" })
+    @DisplayName("Rank and unrank of variations without repetition follow enumeration order")
+    void verifyRankAndUnrankOfVariations(int n, int k) {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(n, k, InputSetBuilder.sequenceFromIndexes());
+        final var buffer = new int[k];
+
+        // When
+        var rank = 0L;
+        for (final int[] variation : variations) {
+            // Then
+            assertThat(variations.rank(variation)).isEqualTo(rank);
+            assertThat(variations.unrank(rank)).isEqualTo(variation);
+            assertThat(variations.unrank(rank, buffer)).isSameAs(buffer).isEqualTo(variation);
+            assertThat(variations.rankExact(variation)).isEqualTo(BigInteger.valueOf(rank));
+            assertThat(variations.unrank(BigInteger.valueOf(rank))).isEqualTo(variation);
+            rank++;
+        }
+        assertThat(rank).isEqualTo(variations.count());
+        assertThat(variations.countExact()).isEqualTo(BigInteger.valueOf(rank));
+    }
+
+    @Test
+    @DisplayName("Exact rank and unrank of variations without repetition of 100 choose 30")
+    void verifyExactRankAndUnrankOfVariationsOfInputSetWithHundredElementsChooseThirty() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(100, 30, InputSetBuilder.sequenceFromIndexes());
+        final var last = variations.countExact().subtract(BigInteger.ONE);
+
+        // When
+        final var variation = variations.unrank(last);
+
+        // Then
+        assertThat(variations.countExact())
+                .isEqualTo(Combinatorics.factorialExact(100).divide(Combinatorics.factorialExact(70)));
+        assertThat(variation).isEqualTo(IntStream.range(0, 30).map(i -> 99 - i).toArray());
+        assertThat(variations.rankExact(variation)).isEqualTo(last);
+        assertThrows(ArithmeticException.class, variations::count);
+    }
+
+    @Test
+    @DisplayName("Invalid variation without repetition to rank")
+    void verifyThatExceptionIsThrownWhenVariationToRankIsInvalid() {
+        final var variations = new VariationsWithoutRepetition<>(4, 2, variationsVisitorRecorder);
+        final Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> variations.rank(new int[]{ 3, 3 }));
+        assertThat(exception.getMessage()).isEqualTo("variation must consist of distinct indexes less than n");
+    }
+
+    @Test
+    @DisplayName("Index arrays of variations without repetition of 5 choose 3 without use of visitor")
+    void verifyForEachIndicesOfVariationsWithoutRepetitionOfFiveElementsChooseThree() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(5, 3, variationsVisitorRecorder);
+        final var indices = new ArrayList<int[]>();
+
+        // When
+        final var completed = variations.forEachIndices(index -> indices.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        variations.forEach(o -> {});
+        assertThat(completed).isTrue();
+        variationsVisitorRecorder.verify(indices.toArray(new int[0][]));
+    }
+
+    @Test
+    @DisplayName("Stop iteration over index arrays of variations without repetition of 5 choose 3")
+    void verifyThatForEachIndicesOfVariationsWithoutRepetitionCanBeStopped() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(5, 3, variationsVisitorRecorder);
+        final var counter = new AtomicInteger();
+
+        // When
+        final var completed = variations.forEachIndices(index -> counter.incrementAndGet() < 3);
+
+        // Then
+        assertThat(completed).isFalse();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Fold of variations without repetition of 7 choose 4 pushes only changed suffix")
+    void verifyFoldIndicesOfVariationsWithoutRepetition() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(7, 4, variationsVisitorRecorder);
+        final var sums = new int[4 + 1];
+        final var pushes = new AtomicInteger();
+        final var pops = new AtomicInteger();
+        final var folded = new ArrayList<Integer>();
+
+        // When
+        final var completed = variations.foldIndices(new PrefixVisitor() {
+            @Override
+            public void push(int depth, int index) {
+                pushes.incrementAndGet();
+                sums[depth + 1] = sums[depth] + index * (depth + 1);
+            }
+
+            @Override
+            public void pop(int depth) {
+                pops.incrementAndGet();
+            }
+
+            @Override
+            public boolean accept(int[] indices) {
+                return folded.add(sums[4]);
+            }
+        });
+
+        // Then
+        final var expected = new ArrayList<Integer>();
+        variations.forEachIndices(index -> expected.add(IntStream.range(0, 4).map(i -> index[i] * (i + 1)).sum()));
+        assertThat(completed).isTrue();
+        assertThat(folded).isEqualTo(expected);
+        assertThat(pops.get()).isEqualTo(pushes.get());
+        assertThat(pushes.get()).isLessThan(4 * expected.size() / 2);
+    }
+
+
+    @Test
+    @DisplayName("Prefix pruning of variations without repetition of 9 choose 5 without neighbouring indexes next to each other")
+    void verifyPrefixPruningOfVariationsWithoutRepetition() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(9, 5, variationsVisitorRecorder);
+        final var prefixes = new AtomicInteger();
+        final var pruned = new ArrayList<int[]>();
+
+        // When
+        final var completed = variations.forEachIndices((indices, depth) -> {
+            prefixes.incrementAndGet();
+            return depth < 2 || Math.abs(indices[depth - 1] - indices[depth - 2]) != 1;
+        }, index -> pruned.add(Arrays.copyOf(index, index.length)));
+
+        // Then
+        final var expected = new ArrayList<int[]>();
+        variations.forEachIndices(index -> !(IntStream.range(1, 5).allMatch(i -> Math.abs(index[i] - index[i - 1]) != 1)) || expected.add(Arrays.copyOf(index, index.length)));
+        assertThat(completed).isTrue();
+        assertThat(pruned).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(prefixes.get()).isLessThan((int) variations.count());
+    }
+
+
+    @Test
+    @DisplayName("Batches of variations without repetition of 5 choose 3")
+    void verifyBatchesOfVariationsWithoutRepetitionOfFiveElementsChooseThree() {
+        // Given
+        final var variations = new VariationsWithoutRepetition<>(5, 3, InputSetBuilder.sequenceFromIndexes());
+        final var iterator = variations.iterator();
+        final var flat = new int[7 * 3];
+        final var batched = new ArrayList<int[]>();
+        batched.add(iterator.next());
+
+        // When
+        int count;
+        while ((count = iterator.nextBatch(flat, 7)) > 0) {
+            for (int i = 0; i < count; i++) {
+                batched.add(Arrays.copyOfRange(flat, i * 3, (i + 1) * 3));
+            }
+        }
+
+        // Then
+        assertThat(batched).containsExactlyElementsOf(variations.stream().collect(Collectors.toList()));
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Should allow to convert variations without repetition to variations with repetition")
     void shouldAllowToConvertVariationsWithoutRepetitionToVariationsWithRepetition() {